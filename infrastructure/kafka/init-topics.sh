@@ -23,6 +23,21 @@ echo ""
 # Format: "topic_name:partitions:replication_factor:retention_hours"
 TOPICS=(
     "notification.created:${NOTIFICATION_CREATED_PARTITIONS:-40}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    # Tópicos por canal (kafka.topics.routing-mode=dual|channel no notification-core): partições independentes por provider
+    "notification.created.email:${NOTIFICATION_CREATED_EMAIL_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.sms:${NOTIFICATION_CREATED_SMS_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.push:${NOTIFICATION_CREATED_PUSH_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.whatsapp:${NOTIFICATION_CREATED_WHATSAPP_PARTITIONS:-5}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    # Faixas de prioridade dos canais em kafka.topics.priority-lane-channels (priority-lanes=true no notification-core)
+    "notification.created.email.high:${NOTIFICATION_CREATED_EMAIL_HIGH_PARTITIONS:-10}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.email.normal:${NOTIFICATION_CREATED_EMAIL_NORMAL_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.email.low:${NOTIFICATION_CREATED_EMAIL_LOW_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.sms.high:${NOTIFICATION_CREATED_SMS_HIGH_PARTITIONS:-10}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.sms.normal:${NOTIFICATION_CREATED_SMS_NORMAL_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.sms.low:${NOTIFICATION_CREATED_SMS_LOW_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.push.high:${NOTIFICATION_CREATED_PUSH_HIGH_PARTITIONS:-10}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.push.normal:${NOTIFICATION_CREATED_PUSH_NORMAL_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
+    "notification.created.push.low:${NOTIFICATION_CREATED_PUSH_LOW_PARTITIONS:-20}:1:${NOTIFICATION_CREATED_RETENTION:-168}"
     "notification.sent:${NOTIFICATION_SENT_PARTITIONS:-10}:1:${NOTIFICATION_SENT_RETENTION:-72}"
     "notification.failed:${NOTIFICATION_FAILED_PARTITIONS:-10}:1:${NOTIFICATION_FAILED_RETENTION:-168}"
     "notification.failed.dlq:${NOTIFICATION_FAILED_DLQ_PARTITIONS:-5}:1:${NOTIFICATION_FAILED_DLQ_RETENTION:-336}"
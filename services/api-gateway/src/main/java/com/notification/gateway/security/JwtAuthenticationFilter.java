@@ -1,5 +1,7 @@
 package com.notification.gateway.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -21,6 +23,9 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter implements WebFilter {
 
+    /** Claims já verificados do token, disponíveis para os filtros seguintes sem novo parse. */
+    public static final String CLAIMS_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".claims";
+
     private final JwtTokenProvider jwtTokenProvider;
     private static final String BEARER_PREFIX = "Bearer ";
 
@@ -42,13 +47,17 @@ public class JwtAuthenticationFilter implements WebFilter {
 
         String token = authHeader.substring(BEARER_PREFIX.length());
 
-        if (!jwtTokenProvider.validateToken(token)) {
-            log.warn("Invalid JWT token for path: {}", path);
+        Claims claims;
+        try {
+            claims = jwtTokenProvider.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid JWT token for path: {}, error={}", path, e.getMessage());
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
 
-        String clientId = jwtTokenProvider.getClientIdFromToken(token);
+        String clientId = claims.getSubject();
+        exchange.getAttributes().put(CLAIMS_ATTRIBUTE, claims);
 
         // Add clientId to request headers for downstream services
         ServerHttpRequest mutatedRequest = request.mutate()
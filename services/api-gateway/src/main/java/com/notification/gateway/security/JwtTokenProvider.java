@@ -1,37 +1,75 @@
 package com.notification.gateway.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Emite e verifica tokens JWT. Chave e parser são criados uma única vez; tokens já verificados ficam
+ * num cache limitado (chave = SHA-256 do token) que expira cada entrada no {@code exp} do próprio token.
+ * Tokens inválidos não são cacheados. {@code jwt.cache.max-size: 0} desliga o cache.
+ */
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    public static final String CACHE_NAME = "jwt_verified";
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verified;
 
-    @Value("${jwt.issuer}")
-    private String issuer;
+    private final Long expiration;
+    private final String issuer;
+    private final String audience;
 
-    @Value("${jwt.audience}")
-    private String audience;
+    public JwtTokenProvider(@Value("${jwt.secret}") String secret,
+                            @Value("${jwt.expiration}") Long expiration,
+                            @Value("${jwt.issuer}") String issuer,
+                            @Value("${jwt.audience}") String audience,
+                            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                            MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.expiration = expiration;
+        this.issuer = issuer;
+        this.audience = audience;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        if (cacheMaxSize > 0) {
+            this.verified = Caffeine.newBuilder()
+                    .maximumSize(cacheMaxSize)
+                    .expireAfter(new ExpireAtTokenExp())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verified, CACHE_NAME);
+            log.info("JWT verified-token cache initialized: maxSize={}", cacheMaxSize);
+        } else {
+            this.verified = null;
+            log.info("JWT verified-token cache disabled");
+        }
     }
 
     public String generateToken(String clientId, String[] scopes) {
@@ -48,24 +86,37 @@ public class JwtTokenProvider {
                 .audience().add(audience).and()
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiryDate))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Verifica assinatura e validade do token uma única vez, reaproveitando o resultado enquanto o token
+     * não expirar. Lança {@link JwtException} (ou {@link IllegalArgumentException}) se o token for inválido.
+     */
+    public Claims verify(String token) {
+        if (verified == null) {
+            return parseToken(token);
+        }
+
+        String key = hash(token);
+        Claims claims = verified.getIfPresent(key);
+
+        if (claims == null) {
+            claims = parseToken(token);
+            verified.put(key, claims);
+        }
+
+        return claims;
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            verify(token);
             return true;
         } catch (Exception e) {
             log.error("Invalid JWT token: {}", e.getMessage());
@@ -74,8 +125,40 @@ public class JwtTokenProvider {
     }
 
     public String getClientIdFromToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.getSubject();
+        return verify(token).getSubject();
     }
 
-}
\ No newline at end of file
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Cada entrada vive até o {@code exp} do token; tokens sem {@code exp} não expiram por tempo (só por tamanho).
+     */
+    private static final class ExpireAtTokenExp implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(exp.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.notification.gateway.benchmark;
+
+import com.notification.gateway.security.JwtAuthenticationFilter;
+import com.notification.gateway.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput do JwtAuthenticationFilter com e sem o cache de tokens verificados.
+ * Executar pelo main (IDE) ou com org.openjdk.jmh.Main usando o classpath de teste do módulo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "c3VwZXItc2VjcmV0LWtleS1mb3Itbm90aWZpY2F0aW9uLXN5c3RlbS1kZXZlbG9wbWVudC0yMDI0";
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtTokenProvider cached = provider(10_000);
+        JwtTokenProvider uncached = provider(0);
+
+        cachedFilter = new JwtAuthenticationFilter(cached);
+        uncachedFilter = new JwtAuthenticationFilter(uncached);
+        authorization = "Bearer " + cached.generateToken("client-bench", new String[]{"notifications:send"});
+    }
+
+    @Benchmark
+    public Object uncachedVerification() {
+        return filter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object cachedVerification() {
+        return filter(cachedFilter);
+    }
+
+    private Object filter(JwtAuthenticationFilter filter) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .post("/api/notifications")
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+
+        filter.filter(exchange, CHAIN).block();
+        return exchange.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE);
+    }
+
+    private static JwtTokenProvider provider(long cacheMaxSize) {
+        return new JwtTokenProvider(SECRET, 3_600_000L, "notification-system", "notification-clients",
+                cacheMaxSize, new SimpleMeterRegistry());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,6 +1,8 @@
 package com.notification.provider.audit.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,12 +11,17 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @EnableKafka
 @Configuration
 public class KafkaConfig {
@@ -43,6 +50,18 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.properties.fetch.max.wait.ms:500}")
     private Integer fetchMaxWaitMs;
 
+    @Value("${kafka.listener.batch.concurrency:${spring.kafka.listener.concurrency:20}}")
+    private Integer batchConcurrency;
+
+    @Value("${kafka.listener.batch.max-retries:5}")
+    private Integer batchMaxRetries;
+
+    @Value("${kafka.listener.batch.retry-backoff-ms:1000}")
+    private Long batchRetryBackoffMs;
+
+    @Value("${kafka.listener.batch.retry-max-backoff-ms:30000}")
+    private Long batchRetryMaxBackoffMs;
+
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -75,5 +94,35 @@ public class KafkaConfig {
 
         return factory;
     }
-}
 
+    /**
+     * Listener em lote para o event_store: cada poll (até max.poll.records) vira um insert em lote.
+     * O registro que falha (BatchListenerFailedException) é retentado com backoff exponencial até max-retries
+     * e depois publicado em {topic}.DLT; os offsets anteriores a ele são confirmados.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> batchKafkaListenerContainerFactory(
+            KafkaOperations<?, ?> kafkaOperations) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(batchConcurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(batchMaxRetries);
+        backOff.setInitialInterval(batchRetryBackoffMs);
+        backOff.setMaxInterval(batchRetryMaxBackoffMs);
+
+        // Partição -1: o producer escolhe, o DLT não precisa ter as mesmas partições do tópico de origem
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaOperations,
+                (record, exception) -> {
+                    log.error("Audit record sent to DLT after {} retries: topic={}, partition={}, offset={}, error={}",
+                            batchMaxRetries, record.topic(), record.partition(), record.offset(), exception.getMessage());
+                    return new TopicPartition(record.topic() + ".DLT", -1);
+                });
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+
+        return factory;
+    }
+}
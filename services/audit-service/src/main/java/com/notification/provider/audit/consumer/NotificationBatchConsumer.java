@@ -0,0 +1,112 @@
+package com.notification.provider.audit.consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.provider.audit.mapper.NotificationMapper;
+import com.notification.provider.audit.metrics.MetricsService;
+import com.notification.provider.audit.model.Notification;
+import com.notification.provider.audit.model.NotificationStatus;
+import com.notification.provider.audit.service.AuditNotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Modo em lote do event_store (kafka.listener.batch.enabled=true, padrão).
+ * O poll é limitado por max.poll.records, do payload só notificationId e cost são lidos (em streaming)
+ * e os eventos e o notification_summary são gravados numa única transação. O offset só é confirmado depois do
+ * commit. Se a gravação do lote falhar, os eventos são gravados um a um; o primeiro que falhar vira
+ * BatchListenerFailedException e o error handler (KafkaConfig) confirma os anteriores, retenta a partir dele com
+ * backoff e, esgotadas as tentativas, o envia para {topic}.DLT.
+ */
+@Slf4j
+@Component
+public class NotificationBatchConsumer {
+
+    private static final String CHANNEL_TOPIC_HEADER = "channelTopic";
+
+    private final AuditNotificationService auditNotificationService;
+    private final MetricsService metricsService;
+    private final JsonFactory jsonFactory;
+
+    public NotificationBatchConsumer(AuditNotificationService auditNotificationService,
+                                     MetricsService metricsService,
+                                     ObjectMapper objectMapper) {
+        this.auditNotificationService = auditNotificationService;
+        this.metricsService = metricsService;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @KafkaListener(
+            id = "auditBatchConsumer",
+            topics = "#{'${kafka.topics.notification}'.split(',')}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${kafka.listener.batch.enabled:true}"
+    )
+    public void handleNotifications(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+        List<Notification> events = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, String>> sources = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, String> record : records) {
+            // Cópia do tópico compartilhado em modo dual: o evento é auditado pelo tópico do canal
+            if (record.headers().lastHeader(CHANNEL_TOPIC_HEADER) != null || record.value() == null) {
+                continue;
+            }
+
+            try {
+                Notification event = NotificationMapper.of(
+                        NotificationMapper.readNotification(jsonFactory, record.value()),
+                        record.topic(), record.timestamp(), record.value());
+                event.setId(UUID.randomUUID());
+                events.add(event);
+                sources.add(record);
+            } catch (Exception e) {
+                log.error("Failed to process message from topic [{}]: message=[{}], error={}",
+                        record.topic(), record.value(), e.getMessage());
+            }
+        }
+
+        try {
+            auditNotificationService.processAll(events);
+        } catch (Exception e) {
+            log.error("Failed to store audit batch, storing one by one: records={}, events={}, error={}",
+                    records.size(), events.size(), e.getMessage(), e);
+            storeOneByOne(events, sources);
+        }
+
+        ack.acknowledge();
+
+        Map<NotificationStatus, Integer> stored = new EnumMap<>(NotificationStatus.class);
+        events.forEach(event -> stored.merge(event.getNotificationStatus(), 1, Integer::sum));
+        stored.forEach(metricsService::incrementEventStored);
+
+        log.info("Audit batch processed: records={}, stored={}", records.size(), events.size());
+    }
+
+    /**
+     * Isola o registro problemático: grava os eventos individualmente, na ordem dos offsets, e falha no primeiro
+     * que não puder ser gravado para o error handler retentar a partir dele.
+     */
+    private void storeOneByOne(List<Notification> events, List<ConsumerRecord<String, String>> sources) {
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                auditNotificationService.processAll(List.of(events.get(i)));
+            } catch (Exception e) {
+                ConsumerRecord<String, String> record = sources.get(i);
+                log.error("Failed to store audit event: topic={}, partition={}, offset={}, error={}",
+                        record.topic(), record.partition(), record.offset(), e.getMessage());
+                throw new BatchListenerFailedException("Failed to store audit event", e, record);
+            }
+        }
+    }
+}
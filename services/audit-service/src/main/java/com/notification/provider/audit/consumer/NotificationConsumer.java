@@ -18,19 +18,29 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class NotificationConsumer {
 
+    private static final String CHANNEL_TOPIC_HEADER = "channelTopic";
+
     private final AuditNotificationService auditNotificationService;
     private final ObjectMapper objectMapper;
     private final MetricsService metricsService;
 
     @KafkaListener(
             topics = "#{'${kafka.topics.notification}'.split(',')}",
-            groupId = "${spring.kafka.consumer.group-id}"
+            groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "#{!${kafka.listener.batch.enabled:true}}"
     )
     public void handleNotification(
             @Header(name = KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(name = KafkaHeaders.RECEIVED_TIMESTAMP) Long timestamp,
+            @Header(name = CHANNEL_TOPIC_HEADER, required = false) String channelTopic,
             String event,
             Acknowledgment ack) {
+        // Cópia do tópico compartilhado em modo dual: o evento é auditado pelo tópico do canal
+        if (channelTopic != null) {
+            ack.acknowledge();
+            return;
+        }
+
         try {
             NotificationDto notification = objectMapper.readValue(event, NotificationDto.class);
             auditNotificationService.process(notification, topic, timestamp, event);
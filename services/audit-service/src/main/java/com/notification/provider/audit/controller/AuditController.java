@@ -5,12 +5,15 @@ import com.notification.provider.audit.service.NotificationSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
@@ -23,9 +26,13 @@ public class AuditController {
 
     @GetMapping("/notifications/{notificationId}")
     @Operation(summary = "Obter dados de auditoria de um ID especifico",
-            description = "Retorna os eventos processados da notificacao")
-    public ResponseEntity<NotificationSummaryDto> getNotificationEvents(@PathVariable String notificationId) {
-        return ResponseEntity.ok(service.getNotificationSummary(UUID.fromString(notificationId)));
+            description = "Retorna o resumo da notificacao. Com includeTimeline=true inclui os eventos processados; "
+                    + "o parametro opcional 'from' limita a busca do timeline as particoes a partir dessa data")
+    public ResponseEntity<NotificationSummaryDto> getNotificationEvents(
+            @PathVariable String notificationId,
+            @RequestParam(defaultValue = "false") boolean includeTimeline,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        return ResponseEntity.ok(service.getNotificationSummary(UUID.fromString(notificationId), from, includeTimeline));
     }
 
 }
@@ -2,6 +2,8 @@ package com.notification.provider.audit.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.math.BigDecimal;
+
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record NotificationDto(String notificationId) {
+public record NotificationDto(String notificationId, BigDecimal cost) {
 }
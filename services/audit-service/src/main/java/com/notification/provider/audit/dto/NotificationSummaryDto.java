@@ -1,5 +1,6 @@
 package com.notification.provider.audit.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.notification.provider.audit.model.NotificationStatus;
 import lombok.Builder;
 
@@ -7,6 +8,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record NotificationSummaryDto(
         UUID notificationId,
         NotificationStatus currentStatus,
@@ -1,9 +1,14 @@
 package com.notification.provider.audit.mapper;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.notification.provider.audit.dto.NotificationDto;
 import com.notification.provider.audit.model.Notification;
 import com.notification.provider.audit.model.NotificationStatus;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -16,12 +21,51 @@ public interface NotificationMapper {
                 .notificationId(UUID.fromString(notificationDto.notificationId()))
                 .notificationStatus(statusFromTopic(topic))
                 .payload(message)
+                .cost(notificationDto.cost())
                 .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()))
                 .createdAt(LocalDateTime.now())
                 .build();
     }
 
+    /**
+     * Lê só notificationId e cost do payload em streaming, sem montar o objeto nem a árvore JSON.
+     * Apenas os campos do primeiro nível são considerados; objetos e arrays aninhados são pulados.
+     */
+    static NotificationDto readNotification(JsonFactory jsonFactory, String message) throws IOException {
+        String notificationId = null;
+        BigDecimal cost = null;
+
+        try (JsonParser parser = jsonFactory.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Payload is not a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("notificationId".equals(field) && value != JsonToken.VALUE_NULL) {
+                    notificationId = parser.getText();
+                } else if ("cost".equals(field) && value.isNumeric()) {
+                    cost = parser.getDecimalValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        if (notificationId == null) {
+            throw new IOException("notificationId not found in payload");
+        }
+        return new NotificationDto(notificationId, cost);
+    }
+
     static NotificationStatus statusFromTopic(String topic) {
+        // Tópicos por canal: notification.created.email, notification.created.sms, ...
+        if (topic.startsWith("notification.created.")) {
+            return NotificationStatus.CREATED;
+        }
+
         return switch (topic) {
             case "notification.created" -> NotificationStatus.CREATED;
             case "notification.sent" -> NotificationStatus.SENT;
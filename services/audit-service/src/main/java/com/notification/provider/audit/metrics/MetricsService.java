@@ -2,12 +2,14 @@ package com.notification.provider.audit.metrics;
 
 import com.notification.provider.audit.model.NotificationStatus;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
@@ -15,14 +17,22 @@ public class MetricsService {
 
     private final MeterRegistry meterRegistry;
     private final Map<String, Counter> counterCache;
+    private final AtomicLong defaultPartitionRows = new AtomicLong();
 
     public MetricsService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
         this.counterCache = new ConcurrentHashMap<>();
+        Gauge.builder("event_store_default_partition_rows", defaultPartitionRows, AtomicLong::get)
+                .description("Linhas na event_store_default (fora das partições diárias) na última manutenção")
+                .register(meterRegistry);
         log.info("MetricsService initialized");
     }
 
     public void incrementEventStored(NotificationStatus notificationStatus) {
+        incrementEventStored(notificationStatus, 1);
+    }
+
+    public void incrementEventStored(NotificationStatus notificationStatus, long count) {
         Counter counter = counterCache.computeIfAbsent(buildCacheKey(notificationStatus), key ->
                 Counter.builder("event_store_events_total")
                         .description("Total de fallback por canal e provedor")
@@ -30,8 +40,23 @@ public class MetricsService {
                         .register(meterRegistry)
         );
 
-        counter.increment();
-        log.debug("Metric incremented: notification_provider_fallback_total [notificationStatus={}]", notificationStatus.name());
+        counter.increment(count);
+        log.debug("Metric incremented: event_store_events_total [notificationStatus={}, count={}]", notificationStatus.name(), count);
+    }
+
+    public void incrementPartitionMaintenance(String action, long count) {
+        Counter counter = counterCache.computeIfAbsent("event_store_partition_maintenance_total_" + action, key ->
+                Counter.builder("event_store_partition_maintenance_total")
+                        .description("Operações de manutenção das partições do event_store (retenção, falhas de criação), por ação")
+                        .tag("action", action)
+                        .register(meterRegistry)
+        );
+
+        counter.increment(count);
+    }
+
+    public void setDefaultPartitionRows(long rows) {
+        defaultPartitionRows.set(rows);
     }
 
     private String buildCacheKey(NotificationStatus notificationStatus) {
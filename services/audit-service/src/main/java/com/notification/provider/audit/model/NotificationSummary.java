@@ -0,0 +1,49 @@
+package com.notification.provider.audit.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Linha do notification_summary, mantida por upsert na ingestão (ver NotificationSummaryBatchRepository)
+ */
+@Entity
+@Table(name = "notification_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSummary {
+
+    @Id
+    @Column(name = "notification_id")
+    private UUID notificationId;
+
+    @Column(name = "current_status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus currentStatus;
+
+    @Column(name = "current_status_at", nullable = false)
+    private LocalDateTime currentStatusAt;
+
+    @Column(name = "total_events", nullable = false)
+    private Integer totalEvents;
+
+    @Column(name = "total_attempts", nullable = false)
+    private Integer totalAttempts;
+
+    @Column(name = "retry_count", nullable = false)
+    private Integer retryCount;
+
+    @Column(name = "total_cost", nullable = false)
+    private BigDecimal totalCost;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_update", nullable = false)
+    private LocalDateTime lastUpdate;
+}
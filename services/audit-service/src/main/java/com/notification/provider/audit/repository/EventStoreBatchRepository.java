@@ -0,0 +1,45 @@
+package com.notification.provider.audit.repository;
+
+import com.notification.provider.audit.model.Notification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Insert em lote no event_store via JDBC batch (com reWriteBatchedInserts o driver envia
+ * inserts multi-linha). Evita o persistence context e um round trip por evento.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class EventStoreBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO event_store (id, notification_id, notification_status, payload, timestamp, created_at)
+            VALUES (?, ?, ?, ?::jsonb, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${audit.batch.insert-chunk-size:1000}")
+    private int chunkSize;
+
+    public void insertAll(List<Notification> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, chunkSize, (ps, event) -> {
+            ps.setObject(1, event.getId() != null ? event.getId() : UUID.randomUUID());
+            ps.setObject(2, event.getNotificationId());
+            ps.setString(3, event.getNotificationStatus().name());
+            ps.setString(4, event.getPayload());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getTimestamp()));
+            ps.setTimestamp(6, Timestamp.valueOf(event.getCreatedAt()));
+        });
+
+        log.debug("Event store batch insert finished: size={}", events.size());
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,5 +16,12 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Query("SELECT n FROM Notification n WHERE n.notificationId = :notificationId ORDER BY n.timestamp ASC, n.version ASC")
     List<Notification> findAllByNotificationIdOrderByTimestampAndVersion(@Param("notificationId") UUID notificationId);
 
+    /**
+     * Mesma consulta com limite inferior em timestamp, o que permite ao Postgres descartar as partições anteriores
+     */
+    @Query("SELECT n FROM Notification n WHERE n.notificationId = :notificationId AND n.timestamp >= :from ORDER BY n.timestamp ASC, n.version ASC")
+    List<Notification> findAllByNotificationIdOrderByTimestampAndVersion(@Param("notificationId") UUID notificationId,
+                                                                          @Param("from") LocalDateTime from);
+
 }
 
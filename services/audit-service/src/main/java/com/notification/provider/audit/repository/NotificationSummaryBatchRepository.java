@@ -0,0 +1,110 @@
+package com.notification.provider.audit.repository;
+
+import com.notification.provider.audit.model.Notification;
+import com.notification.provider.audit.model.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Upsert do notification_summary a partir de um lote de eventos: agrega por notification_id em memória
+ * e aplica uma linha por notificação (em ordem de id, para evitar deadlock entre consumers).
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class NotificationSummaryBatchRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO notification_summary AS s (notification_id, current_status, current_status_at, total_events,
+                                                   total_attempts, retry_count, total_cost, created_at, last_update)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (notification_id) DO UPDATE SET
+                current_status = CASE WHEN EXCLUDED.current_status_at >= s.current_status_at
+                                      THEN EXCLUDED.current_status ELSE s.current_status END,
+                current_status_at = GREATEST(s.current_status_at, EXCLUDED.current_status_at),
+                total_events = s.total_events + EXCLUDED.total_events,
+                total_attempts = s.total_attempts + EXCLUDED.total_attempts,
+                retry_count = s.retry_count + EXCLUDED.retry_count,
+                total_cost = s.total_cost + EXCLUDED.total_cost,
+                created_at = LEAST(s.created_at, EXCLUDED.created_at),
+                last_update = GREATEST(s.last_update, EXCLUDED.last_update)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${audit.batch.insert-chunk-size:1000}")
+    private int chunkSize;
+
+    public void upsertAll(List<Notification> events) {
+        Map<UUID, Delta> deltas = new TreeMap<>();
+        events.stream()
+                .sorted(Comparator.comparing(Notification::getTimestamp))
+                .forEach(event -> deltas.computeIfAbsent(event.getNotificationId(), Delta::new).add(event));
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(deltas.values()), chunkSize, (ps, delta) -> {
+            ps.setObject(1, delta.notificationId);
+            ps.setString(2, delta.currentStatus.name());
+            ps.setTimestamp(3, Timestamp.valueOf(delta.currentStatusAt));
+            ps.setInt(4, delta.totalEvents);
+            ps.setInt(5, delta.totalAttempts);
+            ps.setInt(6, delta.retryCount);
+            ps.setBigDecimal(7, delta.totalCost);
+            ps.setTimestamp(8, Timestamp.valueOf(delta.createdAt));
+            ps.setTimestamp(9, Timestamp.valueOf(delta.currentStatusAt));
+        });
+
+        log.debug("Notification summary upsert finished: events={}, notifications={}", events.size(), deltas.size());
+    }
+
+    /**
+     * Contribuição de um lote para uma notificação; os eventos chegam ordenados por timestamp
+     */
+    private static final class Delta {
+        private final UUID notificationId;
+        private NotificationStatus currentStatus;
+        private LocalDateTime currentStatusAt;
+        private LocalDateTime createdAt;
+        private int totalEvents;
+        private int totalAttempts;
+        private int retryCount;
+        private BigDecimal totalCost = BigDecimal.ZERO;
+
+        private Delta(UUID notificationId) {
+            this.notificationId = notificationId;
+        }
+
+        private void add(Notification event) {
+            NotificationStatus status = event.getNotificationStatus();
+
+            if (createdAt == null) {
+                createdAt = event.getTimestamp();
+            }
+            currentStatus = status;
+            currentStatusAt = event.getTimestamp();
+            totalEvents++;
+
+            if (status == NotificationStatus.SENT || status == NotificationStatus.RETRYING) {
+                totalAttempts++;
+            }
+            if (status == NotificationStatus.RETRYING) {
+                retryCount++;
+            }
+            if (event.getCost() != null) {
+                totalCost = totalCost.add(event.getCost());
+            }
+        }
+    }
+}
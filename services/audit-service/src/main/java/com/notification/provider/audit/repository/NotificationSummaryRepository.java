@@ -0,0 +1,11 @@
+package com.notification.provider.audit.repository;
+
+import com.notification.provider.audit.model.NotificationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface NotificationSummaryRepository extends JpaRepository<NotificationSummary, UUID> {
+}
@@ -2,10 +2,16 @@ package com.notification.provider.audit.service;
 
 import com.notification.provider.audit.dto.NotificationDto;
 import com.notification.provider.audit.mapper.NotificationMapper;
+import com.notification.provider.audit.model.Notification;
+import com.notification.provider.audit.repository.EventStoreBatchRepository;
 import com.notification.provider.audit.repository.NotificationRepository;
+import com.notification.provider.audit.repository.NotificationSummaryBatchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Slf4j
 @Service
@@ -13,10 +19,28 @@ import org.springframework.stereotype.Service;
 public class AuditNotificationService {
 
     private final NotificationRepository repository;
+    private final EventStoreBatchRepository batchRepository;
+    private final NotificationSummaryBatchRepository summaryBatchRepository;
 
+    @Transactional
     public void process(NotificationDto event, String topic, Long timestamp, String message) {
         log.info("Processing notification from topic={}", topic);
-        repository.save(NotificationMapper.of(event, topic, timestamp, message));
+        Notification notification = repository.save(NotificationMapper.of(event, topic, timestamp, message));
+        summaryBatchRepository.upsertAll(List.of(notification));
     }
-}
 
+    /**
+     * Grava o lote inteiro (event_store + notification_summary) numa única transação;
+     * o offset só deve ser confirmado após o retorno.
+     */
+    @Transactional
+    public void processAll(List<Notification> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        batchRepository.insertAll(events);
+        summaryBatchRepository.upsertAll(events);
+        log.info("Audit batch stored: size={}", events.size());
+    }
+}
@@ -0,0 +1,120 @@
+package com.notification.provider.audit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+/**
+ * Move as linhas de event_store_legacy (deixadas pela V4) para a event_store particionada em lotes, cada um
+ * numa transação curta, em vez de copiar a tabela inteira dentro da migração do Flyway. Cada lote também soma
+ * os seus eventos no notification_summary (mesmo upsert comutativo do consumer). Quando a legacy fica vazia,
+ * ela é apagada. Até lá as consultas podem não ver eventos antigos e a retenção de partições fica suspensa.
+ */
+@Slf4j
+@Service
+public class EventStoreLegacyMigrator {
+
+    private static final String MOVE_BATCH_SQL = """
+            WITH moved AS (
+                DELETE FROM event_store_legacy
+                 WHERE ctid = ANY(ARRAY(SELECT ctid FROM event_store_legacy LIMIT ?))
+                RETURNING id, notification_id, notification_status, payload, timestamp, version, created_at
+            ), inserted AS (
+                INSERT INTO event_store (id, notification_id, notification_status, payload, timestamp, version, created_at)
+                SELECT id, notification_id, notification_status, payload, timestamp, version, created_at FROM moved
+            )
+            INSERT INTO notification_summary AS s (notification_id, current_status, current_status_at, total_events,
+                                                   total_attempts, retry_count, total_cost, created_at, last_update)
+            SELECT notification_id,
+                   (ARRAY_AGG(notification_status ORDER BY timestamp DESC, version DESC NULLS LAST))[1],
+                   MAX(timestamp),
+                   COUNT(*),
+                   SUM(CASE WHEN notification_status IN ('SENT', 'RETRYING') THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN notification_status = 'RETRYING' THEN 1 ELSE 0 END),
+                   COALESCE(SUM(CASE WHEN jsonb_typeof(payload -> 'cost') = 'number' THEN (payload ->> 'cost')::numeric END), 0),
+                   MIN(timestamp),
+                   MAX(timestamp)
+              FROM moved
+             GROUP BY notification_id
+             ORDER BY notification_id
+            ON CONFLICT (notification_id) DO UPDATE SET
+                current_status = CASE WHEN EXCLUDED.current_status_at >= s.current_status_at
+                                      THEN EXCLUDED.current_status ELSE s.current_status END,
+                current_status_at = GREATEST(s.current_status_at, EXCLUDED.current_status_at),
+                total_events = s.total_events + EXCLUDED.total_events,
+                total_attempts = s.total_attempts + EXCLUDED.total_attempts,
+                retry_count = s.retry_count + EXCLUDED.retry_count,
+                total_cost = s.total_cost + EXCLUDED.total_cost,
+                created_at = LEAST(s.created_at, EXCLUDED.created_at),
+                last_update = GREATEST(s.last_update, EXCLUDED.last_update)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${audit.event-store.legacy-migration.batch-size:5000}")
+    private int batchSize;
+
+    private volatile boolean finished;
+
+    public EventStoreLegacyMigrator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return true enquanto event_store_legacy existir
+     */
+    public boolean isPending() {
+        if (finished) {
+            return false;
+        }
+        finished = jdbcTemplate.queryForObject("SELECT to_regclass('event_store_legacy') IS NULL", Boolean.class);
+        return !finished;
+    }
+
+    @Scheduled(fixedDelayString = "${audit.event-store.legacy-migration.interval-ms:1000}")
+    public void migrate() {
+        if (!isPending()) {
+            return;
+        }
+
+        try {
+            int moved;
+            do {
+                moved = Objects.requireNonNullElse(transactionTemplate.execute(status -> moveBatch()), 0);
+            } while (moved > 0);
+        } catch (Exception e) {
+            log.error("Event store legacy migration failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return notificações afetadas pelo lote; 0 se outra instância está migrando ou se a legacy acabou (e foi apagada)
+     */
+    private int moveBatch() {
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('event_store_legacy_migration'))", Boolean.class);
+        if (!Boolean.TRUE.equals(locked) || !isPending()) {
+            return 0;
+        }
+
+        Integer remaining = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM event_store_legacy LIMIT 1) AS legacy", Integer.class);
+        if (remaining == null || remaining == 0) {
+            jdbcTemplate.execute("DROP TABLE event_store_legacy");
+            log.info("Event store legacy migration finished, event_store_legacy dropped");
+            return 0;
+        }
+
+        int summaries = jdbcTemplate.update(MOVE_BATCH_SQL, batchSize);
+        log.info("Event store legacy batch moved: batchSize={}, notifications={}", batchSize, summaries);
+        return summaries;
+    }
+}
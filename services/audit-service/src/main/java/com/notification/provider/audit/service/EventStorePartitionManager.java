@@ -0,0 +1,153 @@
+package com.notification.provider.audit.service;
+
+import com.notification.provider.audit.metrics.MetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Mantém as partições diárias do event_store: cria as dos próximos dias e aplica a retenção
+ * (DETACH, ou DETACH + DROP) nas mais antigas. Dias com linhas na event_store_default também ganham
+ * partição (a função move as linhas). Cada partição é criada na sua transação, então a falha de um dia
+ * não impede os demais; um advisory lock serializa as instâncias.
+ */
+@Slf4j
+@Service
+public class EventStorePartitionManager {
+
+    private static final String PARTITION_PREFIX = "event_store_p";
+    private static final DateTimeFormatter PARTITION_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = 'event_store' AND c.relname ~ '^event_store_p[0-9]{8}$'
+            ORDER BY c.relname
+            """;
+
+    private static final String DEFAULT_PARTITION_DAYS_SQL = "SELECT DISTINCT timestamp::date FROM event_store_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricsService metricsService;
+    private final EventStoreLegacyMigrator legacyMigrator;
+
+    @Value("${audit.event-store.partition.premake-days:7}")
+    private int premakeDays;
+
+    @Value("${audit.event-store.partition.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${audit.event-store.partition.retention-action:detach}")
+    private RetentionAction retentionAction;
+
+    public EventStorePartitionManager(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      MetricsService metricsService,
+                                      EventStoreLegacyMigrator legacyMigrator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metricsService = metricsService;
+        this.legacyMigrator = legacyMigrator;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${audit.event-store.partition.cron:0 15 0 * * *}")
+    public void scheduledMaintenance() {
+        maintain();
+    }
+
+    public void maintain() {
+        LocalDate today = LocalDate.now();
+
+        try {
+            SortedSet<LocalDate> days = new TreeSet<>(jdbcTemplate.queryForList(DEFAULT_PARTITION_DAYS_SQL, LocalDate.class));
+            for (int i = 0; i <= premakeDays; i++) {
+                days.add(today.plusDays(i));
+            }
+            days.forEach(this::createPartition);
+            checkDefaultPartition();
+
+            // Partições antigas ainda recebem linhas da event_store_legacy; retirá-las jogaria essas linhas na default
+            if (legacyMigrator.isPending()) {
+                log.info("Event store legacy migration pending, skipping retention");
+            } else {
+                inLockedTransaction(() -> applyRetention(today.minusDays(retentionDays)));
+            }
+        } catch (Exception e) {
+            log.error("Event store partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        try {
+            inLockedTransaction(() -> jdbcTemplate.queryForObject("SELECT create_event_store_partition(?)", String.class, day));
+        } catch (Exception e) {
+            metricsService.incrementPartitionMaintenance("create_failed", 1);
+            log.error("Event store partition creation failed: day={}, error={}", day, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A default só deveria ter linhas se a criação de alguma partição falhou.
+     */
+    private void checkDefaultPartition() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_store_default", Long.class);
+        metricsService.setDefaultPartitionRows(rows != null ? rows : 0);
+        if (rows != null && rows > 0) {
+            log.error("Event store default partition has rows outside the daily partitions: rows={}", rows);
+        }
+    }
+
+    private void inLockedTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('event_store_partitions'))");
+            action.run();
+        });
+    }
+
+    /**
+     * Partições cujo dia é anterior ao corte saem da tabela; com DROP, os dados são apagados.
+     */
+    private void applyRetention(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+
+        for (String partition : partitions) {
+            LocalDate day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_DATE);
+            if (!day.isBefore(cutoff)) {
+                continue;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE event_store DETACH PARTITION " + partition);
+            if (retentionAction == RetentionAction.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+
+            metricsService.incrementPartitionMaintenance(retentionAction.name().toLowerCase(), 1);
+            log.info("Event store partition retired: partition={}, action={}", partition, retentionAction);
+        }
+    }
+
+    public enum RetentionAction {
+        DETACH,
+        DROP
+    }
+}
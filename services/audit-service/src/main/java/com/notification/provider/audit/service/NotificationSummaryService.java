@@ -6,46 +6,59 @@ import com.notification.provider.audit.dto.NotificationMetadataDto;
 import com.notification.provider.audit.dto.NotificationSummaryDto;
 import com.notification.provider.audit.dto.TimelineEventDto;
 import com.notification.provider.audit.model.Notification;
-import com.notification.provider.audit.model.NotificationStatus;
+import com.notification.provider.audit.model.NotificationSummary;
 import com.notification.provider.audit.repository.NotificationRepository;
+import com.notification.provider.audit.repository.NotificationSummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationSummaryService {
 
+    private final NotificationSummaryRepository notificationSummaryRepository;
     private final NotificationRepository notificationRepository;
     private final ObjectMapper objectMapper;
 
     public NotificationSummaryDto getNotificationSummary(UUID notificationId) {
-        List<Notification> events = notificationRepository
-                .findAllByNotificationIdOrderByTimestampAndVersion(notificationId);
+        return getNotificationSummary(notificationId, null, true);
+    }
 
-        if (events.isEmpty())
-            return null;
+    /**
+     * Lê a linha do notification_summary; o timeline (event_store) só é carregado quando pedido.
+     * @param from limite inferior opcional para o timeline; sem ele, usa o created_at do resumo,
+     *             o que já restringe a busca às partições a partir da criação
+     */
+    public NotificationSummaryDto getNotificationSummary(UUID notificationId, LocalDateTime from, boolean includeTimeline) {
+        NotificationSummary summary = notificationSummaryRepository.findById(notificationId).orElse(null);
 
-        List<TimelineEventDto> timeline = events.stream()
-                .map(this::buildTimelineEvent)
-                .toList();
+        if (summary == null)
+            return null;
 
-        NotificationStatus currentStatus = events.getLast().getNotificationStatus();
-        NotificationMetadataDto metadata = buildMetadata(events);
+        List<TimelineEventDto> timeline = includeTimeline
+                ? buildTimeline(notificationId, from != null ? from : summary.getCreatedAt())
+                : null;
 
         return NotificationSummaryDto.builder()
                 .notificationId(notificationId)
-                .currentStatus(currentStatus)
+                .currentStatus(summary.getCurrentStatus())
                 .timeline(timeline)
-                .metadata(metadata)
+                .metadata(buildMetadata(summary))
                 .build();
     }
 
+    private List<TimelineEventDto> buildTimeline(UUID notificationId, LocalDateTime from) {
+        return notificationRepository.findAllByNotificationIdOrderByTimestampAndVersion(notificationId, from).stream()
+                .map(this::buildTimelineEvent)
+                .toList();
+    }
+
     private TimelineEventDto buildTimelineEvent(Notification notification) {
         try {
             JsonNode payloadNode = objectMapper.readTree(notification.getPayload());
@@ -65,35 +78,11 @@ public class NotificationSummaryService {
         }
     }
 
-    private NotificationMetadataDto buildMetadata(List<Notification> events) {
-        int totalEvents = events.size();
-
-        long totalAttempts = events.stream()
-                .filter(e ->
-                        NotificationStatus.RETRYING == e.getNotificationStatus()
-                                || NotificationStatus.SENT == e.getNotificationStatus()
-                ).count();
-
-        double totalCost = events.stream()
-                .mapToDouble(this::extractCostFromPayload)
-                .sum();
-
+    private NotificationMetadataDto buildMetadata(NotificationSummary summary) {
         return NotificationMetadataDto.builder()
-                .totalEvents(totalEvents)
-                .totalAttempts((int) totalAttempts)
-                .totalCost(totalCost)
+                .totalEvents(summary.getTotalEvents())
+                .totalAttempts(summary.getTotalAttempts())
+                .totalCost(summary.getTotalCost().doubleValue())
                 .build();
     }
-
-    private double extractCostFromPayload(Notification notification) {
-        try {
-            JsonNode payloadNode = objectMapper.readTree(notification.getPayload());
-            if (payloadNode.has("cost"))
-                return payloadNode.get("cost").asDouble();
-        } catch (Exception e) {
-            log.debug("Could not extract cost from payload for notification {}", notification.getId());
-        }
-        return 0.0;
-    }
 }
-
@@ -0,0 +1,60 @@
+-- event_store particionada por dia em "timestamp". A PK passa a incluir a chave de partição.
+-- Partições futuras e retenção são mantidas pelo EventStorePartitionManager do audit-service.
+-- Esta migração só troca o schema (renomeia e cria, sem copiar dados): as linhas antigas ficam em
+-- event_store_legacy e são movidas em lotes pelo EventStoreLegacyMigrator depois do startup, que apaga a tabela no fim.
+
+DROP VIEW IF EXISTS notification_summary;
+
+ALTER TABLE event_store RENAME TO event_store_legacy;
+ALTER INDEX idx_event_store_notification_id RENAME TO idx_event_store_legacy_notification_id;
+ALTER INDEX idx_event_store_status RENAME TO idx_event_store_legacy_status;
+ALTER INDEX idx_event_store_timestamp RENAME TO idx_event_store_legacy_timestamp;
+
+CREATE TABLE event_store (
+    id UUID NOT NULL,
+    notification_id UUID NOT NULL,
+    notification_status VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    version INT,
+    created_at TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE INDEX idx_event_store_notification_id ON event_store(notification_id, timestamp);
+CREATE INDEX idx_event_store_status ON event_store(notification_status);
+CREATE INDEX idx_event_store_timestamp ON event_store(timestamp);
+
+-- Cria (se ainda não existir) a partição diária event_store_pYYYYMMDD
+CREATE OR REPLACE FUNCTION create_event_store_partition(day DATE) RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := 'event_store_p' || to_char(day, 'YYYYMMDD');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF event_store FOR VALUES FROM (%L) TO (%L)',
+        partition_name, day::timestamp, (day + 1)::timestamp);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rede de segurança para eventos fora das partições criadas (não deveria receber linhas)
+CREATE TABLE event_store_default PARTITION OF event_store DEFAULT;
+
+SELECT create_event_store_partition(day::date)
+FROM generate_series(
+        COALESCE((SELECT MIN(timestamp)::date FROM event_store_legacy), CURRENT_DATE),
+        CURRENT_DATE + 7,
+        INTERVAL '1 day') AS day;
+
+CREATE VIEW notification_summary AS
+SELECT
+    notification_id,
+    (SELECT notification_status FROM event_store e2
+     WHERE e2.notification_id = e1.notification_id
+     ORDER BY timestamp DESC LIMIT 1) as current_status,
+    COUNT(*) as total_events,
+    MIN(timestamp) as created_at,
+    MAX(timestamp) as last_update,
+    SUM(CASE WHEN notification_status = 'RETRYING' THEN 1 ELSE 0 END) as retry_count
+FROM event_store e1
+GROUP BY notification_id;
@@ -0,0 +1,36 @@
+-- Projeção mantida pelo consumer a cada lote (upsert), no lugar da view com subquery correlacionada
+DROP VIEW IF EXISTS notification_summary;
+
+CREATE TABLE notification_summary (
+    notification_id UUID PRIMARY KEY,
+    current_status VARCHAR(50) NOT NULL,
+    current_status_at TIMESTAMP NOT NULL,
+    total_events INT NOT NULL,
+    total_attempts INT NOT NULL,
+    retry_count INT NOT NULL,
+    total_cost NUMERIC(14, 6) NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    last_update TIMESTAMP NOT NULL
+);
+
+COMMENT ON COLUMN notification_summary.current_status_at IS 'Timestamp of the event that set current_status';
+COMMENT ON COLUMN notification_summary.total_attempts IS 'SENT + RETRYING events';
+COMMENT ON COLUMN notification_summary.created_at IS 'Timestamp of the first event (lower bound for event_store lookups)';
+
+INSERT INTO notification_summary (notification_id, current_status, current_status_at, total_events, total_attempts,
+                                  retry_count, total_cost, created_at, last_update)
+SELECT e.notification_id,
+       latest.notification_status,
+       latest.timestamp,
+       COUNT(*),
+       SUM(CASE WHEN e.notification_status IN ('SENT', 'RETRYING') THEN 1 ELSE 0 END),
+       SUM(CASE WHEN e.notification_status = 'RETRYING' THEN 1 ELSE 0 END),
+       COALESCE(SUM(CASE WHEN jsonb_typeof(e.payload -> 'cost') = 'number' THEN (e.payload ->> 'cost')::numeric END), 0),
+       MIN(e.timestamp),
+       MAX(e.timestamp)
+FROM event_store e
+JOIN (SELECT DISTINCT ON (notification_id) notification_id, notification_status, timestamp
+      FROM event_store
+      ORDER BY notification_id, timestamp DESC, version DESC NULLS LAST) latest
+  ON latest.notification_id = e.notification_id
+GROUP BY e.notification_id, latest.notification_status, latest.timestamp;
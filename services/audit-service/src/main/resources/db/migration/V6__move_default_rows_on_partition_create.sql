@@ -0,0 +1,30 @@
+-- Um dia sem partição (serviço parado além do premake-days) cai na event_store_default, e o CREATE ... PARTITION OF
+-- falharia por violar a constraint da default. As linhas do dia saem da default e voltam pela tabela pai, já
+-- roteadas para a nova partição, na mesma transação.
+CREATE OR REPLACE FUNCTION create_event_store_partition(day DATE) RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := 'event_store_p' || to_char(day, 'YYYYMMDD');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    CREATE TEMP TABLE event_store_default_moved (LIKE event_store) ON COMMIT DROP;
+
+    WITH moved AS (
+        DELETE FROM event_store_default
+        WHERE timestamp >= day AND timestamp < day + 1
+        RETURNING *
+    )
+    INSERT INTO event_store_default_moved SELECT * FROM moved;
+
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF event_store FOR VALUES FROM (%L) TO (%L)',
+        partition_name, day::timestamp, (day + 1)::timestamp);
+
+    INSERT INTO event_store SELECT * FROM event_store_default_moved;
+    DROP TABLE event_store_default_moved;
+
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
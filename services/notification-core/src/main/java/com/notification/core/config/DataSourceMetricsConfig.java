@@ -0,0 +1,30 @@
+package com.notification.core.config;
+
+import com.notification.core.metrics.ConnectionHoldTimeDataSource;
+import com.notification.core.metrics.MetricsService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource do Hikari para publicar o tempo de conexão segurada por fase do envio.
+ */
+@Configuration
+public class DataSourceMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionHoldTimeDataSourcePostProcessor(ObjectProvider<MetricsService> metricsService) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionHoldTimeDataSource)) {
+                    return new ConnectionHoldTimeDataSource(dataSource, metricsService::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -34,6 +34,12 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${kafka.listener.sent-batch.max-poll-records:500}")
+    private int sentBatchMaxPollRecords;
+
+    @Value("${kafka.listener.sent-batch.concurrency:3}")
+    private int sentBatchConcurrency;
+
     private final ObjectMapper objectMapper;
 
     @Bean
@@ -66,13 +72,30 @@ public class KafkaConsumerConfig {
         return listenerFactory(NotificationSentEvent.class);
     }
 
+    /**
+     * Lote de notification.sent: um poll inteiro vira um único UPDATE e um único commit de offset
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationSentEvent> notificationSentBatchListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, NotificationSentEvent> factory = listenerFactory(
+                NotificationSentEvent.class, Map.of(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, sentBatchMaxPollRecords));
+        factory.setBatchListener(true);
+        factory.setConcurrency(sentBatchConcurrency);
+        return factory;
+    }
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, NotificationFailedEvent> notificationFailedListenerFactory() {
         return listenerFactory(NotificationFailedEvent.class);
     }
 
     private <T> ConcurrentKafkaListenerContainerFactory<String, T> listenerFactory(Class<T> clazz) {
+        return listenerFactory(clazz, Map.of());
+    }
+
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> listenerFactory(Class<T> clazz, Map<String, Object> overrides) {
         Map<String, Object> config = baseConsumerConfig();
+        config.putAll(overrides);
 
         JsonDeserializer<T> deserializer = new JsonDeserializer<>(clazz, objectMapper);
         deserializer.setUseTypeHeaders(false);
@@ -1,39 +1,57 @@
 package com.notification.core.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.notification.core.http.ApacheHttpClientFactory;
+import com.notification.core.http.HttpClientFactory;
+import com.notification.core.http.HttpClientProperties;
+import com.notification.core.http.JdkHttpClientFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
-import java.time.Duration;
-
 /**
- * REST Client configuration for external service calls
+ * REST Client configuration for external service calls.
+ * Each downstream service gets its own connection pool and timeouts (http-client.routes.*).
  */
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class RestClientConfig {
 
-    @Value("${quota-service.url}")
-    private String quotaServiceUrl;
+    public static final String QUOTA_SERVICE = "quota-service";
+    public static final String TEMPLATE_SERVICE = "template-service";
 
-    @Value("${quota-service.timeout:5000}")
-    private int timeout;
+    @Bean
+    public HttpClientFactory httpClientFactory(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        return switch (properties.getType()) {
+            case APACHE -> new ApacheHttpClientFactory(properties, meterRegistry);
+            case JDK -> new JdkHttpClientFactory(properties);
+        };
+    }
 
     @Bean
-    public ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(Duration.ofMillis(timeout));
-        factory.setReadTimeout(Duration.ofMillis(timeout));
-        return factory;
+    public ClientHttpRequestFactory quotaServiceRequestFactory(HttpClientFactory factory, HttpClientProperties properties) {
+        return factory.create(QUOTA_SERVICE, properties.route(QUOTA_SERVICE));
     }
 
     @Bean
-    public RestClient restClient(ClientHttpRequestFactory requestFactory) {
+    public ClientHttpRequestFactory templateServiceRequestFactory(HttpClientFactory factory, HttpClientProperties properties) {
+        return factory.create(TEMPLATE_SERVICE, properties.route(TEMPLATE_SERVICE));
+    }
+
+    @Bean
+    public RestClient quotaServiceRestClient(@Qualifier("quotaServiceRequestFactory") ClientHttpRequestFactory requestFactory) {
         return RestClient.builder()
                 .requestFactory(requestFactory)
                 .build();
     }
-}
 
+    @Bean
+    public RestClient templateServiceRestClient(@Qualifier("templateServiceRequestFactory") ClientHttpRequestFactory requestFactory) {
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .build();
+    }
+}
@@ -5,7 +5,6 @@ import com.notification.core.dto.NotificationSentEvent;
 import com.notification.core.metrics.MetricsService;
 import com.notification.core.model.Notification;
 import com.notification.core.model.NotificationStatus;
-import com.notification.core.service.NotificationOrchestrator;
 import com.notification.core.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,13 +21,13 @@ import org.springframework.stereotype.Component;
 public class NotificationEventConsumer {
 
     private final NotificationService notificationService;
-    private final NotificationOrchestrator notificationOrchestrator;
     private final MetricsService metricsService;
 
     @KafkaListener(
             topics = "${kafka.topics.notification-sent}",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "notificationSentListenerFactory"
+            containerFactory = "notificationSentListenerFactory",
+            autoStartup = "#{!${kafka.listener.sent-batch.enabled:true}}"
     )
     public void handleNotificationSent(NotificationSentEvent event, Acknowledgment acknowledgment) {
         log.info("Received notification sent event: notificationId={}, providerId={}", event.getNotificationId(), event.getProviderId());
@@ -59,13 +58,11 @@ public class NotificationEventConsumer {
                     event.getFailureReason()
             );
 
-            // Se a notificação está em RETRYING, republica para nova tentativa
+            // RETRYING: o RetryScheduler republica após o backoff; FAILED: a DLQ já foi gravada no outbox
             if (notification.getStatus() == NotificationStatus.RETRYING) {
-                log.info("Republishing notification for retry: id={}, retryCount={}",
-                        notification.getId(), notification.getRetryCount());
-                notificationOrchestrator.publishCreatedNotificationEvent(notification);
+                log.info("Notification scheduled for retry: id={}, retryCount={}, nextRetryAt={}",
+                        notification.getId(), notification.getRetryCount(), notification.getNextRetryAt());
             } else {
-                notificationOrchestrator.publishDlqNotificationEvent(notification);
                 metricsService.incrementDlq(notification.getChannel(), "max_retries_exceeded");
             }
 
@@ -0,0 +1,61 @@
+package com.notification.core.consumer;
+
+import com.notification.core.dto.NotificationSentEvent;
+import com.notification.core.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Modo em lote do tópico notification.sent (kafka.listener.sent-batch.enabled=true, padrão).
+ * Cada poll é aplicado com um único UPDATE ... FROM (VALUES ...) e um único commit de offset.
+ * Se o lote falhar, cai para a atualização evento a evento, como no listener unitário.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationSentBatchConsumer {
+
+    private final NotificationService notificationService;
+
+    @KafkaListener(
+            id = "notificationSentBatchConsumer",
+            topics = "${kafka.topics.notification-sent}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "notificationSentBatchListenerFactory",
+            autoStartup = "${kafka.listener.sent-batch.enabled:true}"
+    )
+    public void handleNotificationsSent(List<ConsumerRecord<String, NotificationSentEvent>> records, Acknowledgment acknowledgment) {
+        // Registros que não desserializaram chegam com value null (ErrorHandlingDeserializer)
+        List<NotificationSentEvent> events = records.stream()
+                .map(ConsumerRecord::value)
+                .filter(Objects::nonNull)
+                .toList();
+
+        log.info("Received notification sent batch: records={}, events={}", records.size(), events.size());
+
+        try {
+            notificationService.updateStatusToSent(events);
+        } catch (Exception e) {
+            log.error("Batch status update failed, falling back to per-event updates: size={}, error={}",
+                    events.size(), e.getMessage(), e);
+            events.forEach(this::updateOne);
+        }
+
+        acknowledgment.acknowledge();
+    }
+
+    private void updateOne(NotificationSentEvent event) {
+        try {
+            notificationService.updateStatusToSent(event);
+        } catch (Exception e) {
+            log.error("Error processing sent event for notificationId={}: {}", event.getNotificationId(), e.getMessage(), e);
+        }
+    }
+}
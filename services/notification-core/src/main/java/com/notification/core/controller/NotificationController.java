@@ -1,13 +1,22 @@
 package com.notification.core.controller;
 
+import com.notification.core.dto.BatchNotificationRequest;
+import com.notification.core.dto.BatchNotificationResponse;
+import com.notification.core.dto.NotificationCursorPage;
+import com.notification.core.dto.NotificationExportFilter;
 import com.notification.core.dto.NotificationRequest;
 import com.notification.core.dto.NotificationResponse;
+import com.notification.core.model.Channel;
 import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.service.BatchNotificationOrchestrator;
+import com.notification.core.service.NotificationExportService;
 import com.notification.core.service.NotificationOrchestrator;
 import com.notification.core.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,10 +24,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
 @Slf4j
 @RestController
 @RequestMapping("/notifications")
@@ -27,7 +41,11 @@ import org.springframework.web.bind.annotation.*;
 public class NotificationController {
 
     private final NotificationOrchestrator notificationOrchestrator;
+    private final BatchNotificationOrchestrator batchNotificationOrchestrator;
     private final NotificationService notificationService;
+    private final NotificationExportService notificationExportService;
+
+    private static final String NDJSON = "application/x-ndjson";
 
     @PostMapping("/send")
     @Operation(summary = "Send notification", description = "Create and send a notification through specified channel")
@@ -43,6 +61,18 @@ public class NotificationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/send/batch")
+    @Operation(summary = "Send notifications in batch", description = "Create and send up to 5000 notifications in a single call, with a result per item")
+    @ApiResponse(responseCode = "200", description = "Batch processed; check the status of each item")
+    @ApiResponse(responseCode = "400", description = "Invalid batch")
+    public ResponseEntity<BatchNotificationResponse> sendNotificationBatch(@Valid @RequestBody BatchNotificationRequest request) {
+        log.info("Received notification batch request: size={}", request.getNotifications().size());
+
+        BatchNotificationResponse response = batchNotificationOrchestrator.sendBatch(request);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get notification by ID", description = "Retrieve notification details by ID")
     @ApiResponse(responseCode = "200", description = "Notification found")
@@ -57,7 +87,7 @@ public class NotificationController {
     }
 
     @GetMapping("/client/{clientId}")
-    @Operation(summary = "List notifications by client", description = "Get paginated list of notifications for a client")
+    @Operation(summary = "List notifications by client", description = "Get paginated list of notifications for a client (offset based; prefer /client/{clientId}/cursor for deep pages)")
     @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully")
     public ResponseEntity<Page<NotificationResponse>> getClientNotifications(
             @PathVariable String clientId,
@@ -77,6 +107,44 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/client/{clientId}/cursor")
+    @Operation(summary = "List notifications by client (cursor)",
+            description = "Newest first, paginated by an opaque cursor over (createdAt, id). No total count; content only with includeContent=true")
+    @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<NotificationCursorPage> getClientNotificationsByCursor(
+            @PathVariable String clientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeContent) {
+
+        log.info("Fetching notifications for client by cursor: clientId={}, size={}, firstPage={}", clientId, size, cursor == null);
+
+        NotificationCursorPage response = notificationService.findByClientId(clientId, cursor, size, includeContent);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/client/{clientId}/export", produces = NDJSON)
+    @Operation(summary = "Export notifications by client",
+            description = "Stream all matching notifications as NDJSON (one JSON object per line), oldest first. Time range is [from, to)")
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    public void exportClientNotifications(
+            @PathVariable String clientId,
+            @RequestParam(required = false) Channel channel,
+            @RequestParam(required = false) NotificationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Exporting notifications: clientId={}, channel={}, status={}, from={}, to={}", clientId, channel, status, from, to);
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        notificationExportService.export(new NotificationExportFilter(clientId, channel, status, from, to),
+                response.getOutputStream());
+    }
+
     @GetMapping("/stats")
     @Operation(summary = "Get notification statistics", description = "Retrieve notification statistics by status")
     @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
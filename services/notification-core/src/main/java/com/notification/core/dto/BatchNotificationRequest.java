@@ -0,0 +1,22 @@
+package com.notification.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchNotificationRequest {
+
+    @NotEmpty(message = "Notifications are required")
+    @Size(max = 5000, message = "A batch must have at most 5000 notifications")
+    private List<@Valid NotificationRequest> notifications;
+}
@@ -0,0 +1,60 @@
+package com.notification.core.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNotificationResponse {
+
+    private int total;
+    private int accepted;
+    private int duplicated;
+    private int rejected;
+    private List<ItemResult> results;
+
+    public static BatchNotificationResponse of(List<ItemResult> results) {
+        int accepted = 0;
+        int duplicated = 0;
+        for (ItemResult result : results) {
+            if (result.getStatus() == ItemStatus.CREATED) {
+                accepted++;
+            } else if (result.getStatus() == ItemStatus.DUPLICATE) {
+                duplicated++;
+            }
+        }
+
+        return BatchNotificationResponse.builder()
+                .total(results.size())
+                .accepted(accepted)
+                .duplicated(duplicated)
+                .rejected(results.size() - accepted - duplicated)
+                .results(results)
+                .build();
+    }
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String idempotencyKey;
+        private String notificationId;
+        private ItemStatus status;
+        private String message;
+    }
+
+    public enum ItemStatus {
+        CREATED,
+        DUPLICATE,
+        QUOTA_EXCEEDED,
+        TEMPLATE_ERROR,
+        FAILED
+    }
+}
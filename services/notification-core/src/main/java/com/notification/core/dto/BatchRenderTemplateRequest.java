@@ -0,0 +1,15 @@
+package com.notification.core.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRenderTemplateRequest {
+
+    private List<NotificationRequest> requests;
+}
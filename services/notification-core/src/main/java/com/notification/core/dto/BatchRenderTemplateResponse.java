@@ -0,0 +1,43 @@
+package com.notification.core.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRenderTemplateResponse {
+
+    private List<RenderResult> results;
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RenderResult {
+        private String content;
+        private String subject;
+        private UUID templateId;
+        private Integer templateVersion;
+        private String error;
+        private String message;
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public RenderTemplateResponse toRenderTemplateResponse() {
+            return RenderTemplateResponse.builder()
+                    .content(content)
+                    .subject(subject)
+                    .templateId(templateId)
+                    .templateVersion(templateVersion)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.notification.core.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor. Sem total: nextCursor é null na última página.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationCursorPage {
+
+    private List<NotificationListItem> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -48,6 +48,8 @@ public class NotificationEvent {
     @Getter
     @Setter
     @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class TemplateMetadata {
         private String code;
         private UUID id;
@@ -0,0 +1,13 @@
+package com.notification.core.dto;
+
+import com.notification.core.model.Channel;
+import com.notification.core.model.NotificationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros do export NDJSON; só clientId é obrigatório. O intervalo é [from, to).
+ */
+public record NotificationExportFilter(String clientId, Channel channel, NotificationStatus status,
+                                       LocalDateTime from, LocalDateTime to) {
+}
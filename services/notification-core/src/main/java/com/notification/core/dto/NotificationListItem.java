@@ -0,0 +1,54 @@
+package com.notification.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.notification.core.model.Channel;
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.model.Priority;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção leve de uma notificação para listagens (content só quando pedido) e linha do export NDJSON.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NotificationListItem {
+
+    private String notificationId;
+    private String idempotencyKey;
+    private Channel channel;
+    private String recipient;
+    private String subject;
+    private String templateCode;
+    private NotificationStatus status;
+    private Priority priority;
+    private int retryCount;
+    private String content;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime sentAt;
+
+    public static NotificationListItem of(Notification notification) {
+        return NotificationListItem.builder()
+                .notificationId(notification.getId())
+                .idempotencyKey(notification.getIdempotencyKey())
+                .channel(notification.getChannel())
+                .recipient(notification.getRecipient())
+                .subject(notification.getSubject())
+                .templateCode(notification.getTemplateCode())
+                .status(notification.getStatus())
+                .priority(notification.getPriority())
+                .retryCount(notification.getRetryCount())
+                .content(notification.getContent())
+                .createdAt(notification.getCreatedAt())
+                .updatedAt(notification.getUpdatedAt())
+                .sentAt(notification.getSentAt())
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.notification.core.dto;
+
+import com.notification.core.model.Channel;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuotaLeaseRequest {
+
+    private String clientId;
+    private Channel channel;
+    private Long requested;
+    private String leaseId;
+}
@@ -0,0 +1,16 @@
+package com.notification.core.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuotaLeaseResponse {
+
+    private String leaseId;
+    private Long requested;
+    private Long granted;
+    private Long availableQuota;
+}
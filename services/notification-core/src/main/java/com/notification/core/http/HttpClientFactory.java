@@ -0,0 +1,11 @@
+package com.notification.core.http;
+
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+/**
+ * Cria a {@link ClientHttpRequestFactory} de uma rota (serviço de destino), com pool próprio.
+ */
+public interface HttpClientFactory {
+
+    ClientHttpRequestFactory create(String routeName, HttpClientProperties.Route route);
+}
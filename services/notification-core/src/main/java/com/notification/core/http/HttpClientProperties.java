@@ -0,0 +1,61 @@
+package com.notification.core.http;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuração dos clientes HTTP para os serviços internos (quota-service, template-service).
+ * Cada rota tem seu próprio pool de conexões e seus próprios timeouts.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+
+    private Type type = Type.APACHE;
+
+    /**
+     * Tempo que uma conexão ociosa fica no pool quando o servidor não informa Keep-Alive.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Tempo máximo de vida de uma conexão, para redistribuir carga entre réplicas do serviço.
+     */
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+    private Map<String, Route> routes = new HashMap<>();
+
+    public Route route(String name) {
+        return routes.getOrDefault(name, new Route());
+    }
+
+    public enum Type {
+        APACHE,
+        JDK
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        private int maxConnections = 200;
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Quanto tempo esperar por uma conexão livre do pool (apenas type=apache).
+         */
+        private Duration connectionRequestTimeout = Duration.ofMillis(500);
+
+        /**
+         * Multiplexação HTTP/2 (apenas type=jdk; o cliente clássico do Apache só fala HTTP/1.1).
+         */
+        private boolean http2 = false;
+    }
+}
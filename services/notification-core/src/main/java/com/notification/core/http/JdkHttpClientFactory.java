@@ -0,0 +1,66 @@
+package com.notification.core.http;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link HttpClient} do JDK, um por rota. Suporta HTTP/2 (multiplexa as requisições em poucas
+ * conexões). O JDK não expõe estatísticas do pool, então as métricas de pool só existem com type=apache.
+ * O tamanho do pool HTTP/1.1 e o keep-alive do JDK são globais e lidos uma única vez, quando a classe interna
+ * do cliente é carregada: precisam vir como argumento da JVM (-Djdk.httpclient.keepalive.timeout=30, já no
+ * Dockerfile; -Djdk.httpclient.connectionPoolSize). http-client.keep-alive não vale para este tipo.
+ * Os clientes e seus executors são fechados no shutdown do contexto.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JdkHttpClientFactory implements HttpClientFactory, AutoCloseable {
+
+    private static final String KEEPALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    private final HttpClientProperties properties;
+
+    private final List<HttpClient> clients = new CopyOnWriteArrayList<>();
+    private final List<ExecutorService> executors = new CopyOnWriteArrayList<>();
+
+    @Override
+    public ClientHttpRequestFactory create(String routeName, HttpClientProperties.Route route) {
+        if (System.getProperty(KEEPALIVE_PROPERTY) == null) {
+            log.warn("{} not set as a JVM argument: JDK HTTP client keeps idle connections for the JDK default (1200s), not http-client.keep-alive={}",
+                    KEEPALIVE_PROPERTY, properties.getKeepAlive());
+        }
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(route.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(route.getConnectTimeout())
+                .executor(executor)
+                .build();
+        executors.add(executor);
+        clients.add(httpClient);
+
+        log.info("HTTP client created: route={}, type=jdk, http2={}, connectTimeout={}, readTimeout={}",
+                routeName, route.isHttp2(), route.getConnectTimeout(), route.getReadTimeout());
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(route.getReadTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * Chamado pelo Spring no shutdown (close inferido do @Bean): encerra as conexões e depois os executors.
+     */
+    @Override
+    public void close() {
+        clients.forEach(HttpClient::shutdownNow);
+        executors.forEach(ExecutorService::close);
+        log.info("JDK HTTP clients closed: clients={}", clients.size());
+    }
+}
@@ -0,0 +1,37 @@
+package com.notification.core.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Mede quanto tempo cada conexão fica emprestada do pool (getConnection até close),
+ * atribuindo o tempo à {@link SendPhase} corrente da thread. O hikaricp_connections_usage do Hikari mede o
+ * mesmo tempo, mas sem a fase; por isso a conexão é embrulhada em {@link HoldTimeTrackingConnection}.
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+    private final Supplier<MetricsService> metricsService;
+
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource, Supplier<MetricsService> metricsService) {
+        super(targetDataSource);
+        this.metricsService = metricsService;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        return new HoldTimeTrackingConnection(connection, SendPhaseTracker.currentPhase(), metricsService.get());
+    }
+}
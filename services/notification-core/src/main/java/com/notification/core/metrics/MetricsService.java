@@ -4,9 +4,11 @@ import com.notification.core.dto.NotificationSentEvent;
 import com.notification.core.model.Channel;
 import com.notification.core.model.Notification;
 import com.notification.core.model.NotificationStatus;
+import com.notification.core.model.OutboxEventType;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +16,7 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -21,14 +24,20 @@ public class MetricsService {
 
     private final MeterRegistry meterRegistry;
     private final Map<String, Counter> counterCache;
+    private final Map<String, Timer> timerCache;
 
     public MetricsService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
         this.counterCache = new ConcurrentHashMap<>();
+        this.timerCache = new ConcurrentHashMap<>();
         log.info("MetricsService initialized");
     }
 
     public void incrementNotificationCounter(Channel channel, NotificationStatus status, String provider) {
+        incrementNotificationCounter(channel, status, provider, 1);
+    }
+
+    public void incrementNotificationCounter(Channel channel, NotificationStatus status, String provider, double amount) {
         String cacheKey = buildCacheKey(channel, status, provider);
 
         Counter counter = counterCache.computeIfAbsent(cacheKey, key ->
@@ -40,8 +49,8 @@ public class MetricsService {
                         .register(meterRegistry)
         );
 
-        counter.increment();
-        log.debug("Metric incremented: notification_total [channel={}, status={}]", channel, status);
+        counter.increment(amount);
+        log.debug("Metric incremented: notification_total [channel={}, status={}, amount={}]", channel, status, amount);
     }
 
     public void incrementNotificationCounter(Channel channel, NotificationStatus status) {
@@ -78,6 +87,17 @@ public class MetricsService {
         log.debug("Metric incremented: notification_retry_total [channel={}, attemptNumber={}]", channel, attemptNumber);
     }
 
+    public void incrementRetryDispatched(Channel channel) {
+        Counter counter = counterCache.computeIfAbsent("notification_retry_dispatched_total_" + normalize(channel), key ->
+                Counter.builder("notification_retry_dispatched_total")
+                        .description("Reenvios republicados pelo scheduler após o backoff, por canal")
+                        .tag("channel", normalize(channel))
+                        .register(meterRegistry)
+        );
+
+        counter.increment();
+    }
+
     public void incrementDlq(Channel channel, String reason) {
         String cacheKey = buildCacheKeyDlq(channel, reason);
 
@@ -107,6 +127,11 @@ public class MetricsService {
         recordLatency(notification.getChannel(), event.getProviderId(), Duration.between(notification.getCreatedAt(), notification.getUpdatedAt()));
     }
 
+    public void incrementSent(Channel channel, String provider, long count, BigDecimal cost) {
+        incrementNotificationCounter(channel, NotificationStatus.SENT, provider, count);
+        incrementNotificationCostCounter(channel, provider, cost);
+    }
+
     public void incrementFailed(Channel channel) {
         incrementNotificationCounter(channel, NotificationStatus.FAILED);
     }
@@ -115,6 +140,135 @@ public class MetricsService {
         incrementNotificationCounter(channel, NotificationStatus.PENDING);
     }
 
+    public void incrementPending(Channel channel, long count) {
+        incrementNotificationCounter(channel, NotificationStatus.PENDING, "", count);
+    }
+
+    public void recordSendPhase(SendPhase phase, long durationNanos) {
+        Timer timer = timerCache.computeIfAbsent("notification_send_phase_" + normalize(phase), key ->
+                Timer.builder("notification_send_phase_duration")
+                        .description("Duração de cada fase do envio de notificação")
+                        .tag("phase", normalize(phase))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+        );
+
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Tempo entre pegar e devolver uma conexão ao pool, por fase do envio ("none" fora do pipeline).
+     */
+    public void recordConnectionHold(SendPhase phase, long durationNanos) {
+        Timer timer = timerCache.computeIfAbsent("db_connection_hold_" + normalize(phase), key ->
+                Timer.builder("notification_db_connection_hold")
+                        .description("Tempo de conexão do pool segurada, por fase do envio")
+                        .tag("phase", phase == null ? "none" : normalize(phase))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+        );
+
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Latência fim a fim do sendNotification por modo de orquestração (sequential x concurrent).
+     */
+    public void recordOrchestration(String mode, boolean success, long durationNanos) {
+        String normalizedMode = mode.toLowerCase();
+        String outcome = success ? "success" : "error";
+
+        timerCache.computeIfAbsent("notification_orchestration_" + normalizedMode + "_" + outcome, key ->
+                Timer.builder("notification_orchestration_duration")
+                        .description("Duração do envio de notificação por modo de orquestração")
+                        .tag("mode", normalizedMode)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+        ).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Uso dos leases de quota: local (sem chamada HTTP), refill (novo bloco) e denied (quota esgotada).
+     */
+    public void incrementQuotaLease(String outcome) {
+        counterCache.computeIfAbsent("notification_quota_lease_" + outcome, key ->
+                Counter.builder("notification_quota_lease_total")
+                        .description("Unidades de quota obtidas via lease, por origem")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+        ).increment();
+    }
+
+    /**
+     * Devoluções de unidades de lease que falharam e ficaram para a próxima varredura
+     */
+    public void incrementQuotaLeaseReturnFailed() {
+        counterCache.computeIfAbsent("notification_quota_lease_return_failures", key ->
+                Counter.builder("notification_quota_lease_return_failures_total")
+                        .description("Devoluções de unidades de lease ao quota-service que falharam (serão reenviadas)")
+                        .register(meterRegistry)
+        ).increment();
+    }
+
+    /**
+     * Consultas de idempotência filtradas pelo Bloom filter: negative (banco não consultado), positive (key existia)
+     * e false_positive (filtro disse talvez, banco não tinha). Taxa observada = false_positive / (false_positive + negative).
+     */
+    public void incrementIdempotencyBloom(String result, long count) {
+        if (count > 0) {
+            counterCache.computeIfAbsent("idempotency_bloom_checks_" + result, key ->
+                    Counter.builder("idempotency_bloom_checks_total")
+                            .description("Consultas de idempotency key ao Bloom filter, por resultado")
+                            .tag("result", result)
+                            .register(meterRegistry)
+            ).increment(count);
+        }
+    }
+
+    public void incrementOutboxPublished(int count) {
+        if (count > 0) {
+            counterCache.computeIfAbsent("notification_outbox_published_total", key ->
+                    Counter.builder("notification_outbox_published_total")
+                            .description("Eventos do outbox publicados no Kafka")
+                            .register(meterRegistry)
+            ).increment(count);
+        }
+    }
+
+    public void incrementOutboxFailed(int count) {
+        if (count > 0) {
+            counterCache.computeIfAbsent("notification_outbox_failed_total", key ->
+                    Counter.builder("notification_outbox_failed_total")
+                            .description("Falhas de publicação de eventos do outbox")
+                            .register(meterRegistry)
+            ).increment(count);
+        }
+    }
+
+    public void incrementOutboxParked(int count) {
+        if (count > 0) {
+            counterCache.computeIfAbsent("notification_outbox_parked_total", key ->
+                    Counter.builder("notification_outbox_parked_total")
+                            .description("Eventos do outbox estacionados após esgotar as tentativas de publicação")
+                            .register(meterRegistry)
+            ).increment(count);
+        }
+    }
+
+    /**
+     * Tempo entre a gravação do evento no outbox e a confirmação do Kafka.
+     */
+    public void recordOutboxLag(OutboxEventType eventType, Duration lag) {
+        timerCache.computeIfAbsent("notification_outbox_lag_" + normalize(eventType), key ->
+                Timer.builder("notification_outbox_lag")
+                        .description("Atraso entre a gravação no outbox e a publicação no Kafka")
+                        .tag("eventType", normalize(eventType))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+        ).record(lag);
+    }
+
     private String normalize(Enum<?> enumValue) {
         if (enumValue == null)
             return "unknown";
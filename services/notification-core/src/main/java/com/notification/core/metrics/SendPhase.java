@@ -0,0 +1,12 @@
+package com.notification.core.metrics;
+
+/**
+ * Fases do pipeline de envio. Só PERSIST deveria segurar conexão do pool por tempo relevante.
+ */
+public enum SendPhase {
+    VALIDATE,
+    RESERVE,
+    RENDER,
+    PERSIST,
+    PUBLISH
+}
@@ -0,0 +1,50 @@
+package com.notification.core.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca a fase corrente do envio na thread, para que o tempo de cada fase e o tempo
+ * de conexão segurada (ver {@link ConnectionHoldTimeDataSource}) sejam atribuídos a ela.
+ */
+@Component
+@RequiredArgsConstructor
+public class SendPhaseTracker {
+
+    private static final ThreadLocal<SendPhase> CURRENT_PHASE = new ThreadLocal<>();
+
+    private final MetricsService metricsService;
+
+    public <T> T track(SendPhase phase, Supplier<T> step) {
+        SendPhase previous = CURRENT_PHASE.get();
+        CURRENT_PHASE.set(phase);
+        long start = System.nanoTime();
+
+        try {
+            return step.get();
+        } finally {
+            metricsService.recordSendPhase(phase, System.nanoTime() - start);
+            if (previous != null) {
+                CURRENT_PHASE.set(previous);
+            } else {
+                CURRENT_PHASE.remove();
+            }
+        }
+    }
+
+    public void track(SendPhase phase, Runnable step) {
+        track(phase, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Fase corrente da thread, ou null fora do pipeline de envio (consumers, jobs, consultas).
+     */
+    public static SendPhase currentPhase() {
+        return CURRENT_PHASE.get();
+    }
+}
@@ -97,6 +97,9 @@ public class Notification {
     @Column(name = "failed_at")
     private LocalDateTime failedAt;
 
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt;
+
     public void incrementRetryCount() {
         this.retryCount = (this.retryCount == null ? 0 : this.retryCount) + 1;
     }
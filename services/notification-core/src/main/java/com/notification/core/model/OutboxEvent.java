@@ -0,0 +1,24 @@
+package com.notification.core.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da tabela notification_outbox. Mapeada via JDBC, não é entidade JPA.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    private Long id;
+    private String notificationId;
+    private OutboxEventType eventType;
+    private String payload;
+    private int shard;
+    private int attempts;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,6 @@
+package com.notification.core.model;
+
+public enum OutboxEventType {
+    NOTIFICATION_CREATED,
+    NOTIFICATION_DLQ
+}
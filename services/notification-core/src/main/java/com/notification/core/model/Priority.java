@@ -4,6 +4,16 @@ public enum Priority {
     LOW,
     MEDIUM,
     HIGH,
-    URGENT
-}
+    URGENT;
 
+    /**
+     * Faixa de despacho (sufixo do tópico do canal quando kafka.topics.priority-lanes=true)
+     */
+    public String lane() {
+        return switch (this) {
+            case URGENT, HIGH -> "high";
+            case MEDIUM -> "normal";
+            case LOW -> "low";
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.notification.core.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bitsets do Bloom filter de idempotency keys em Redis puro (SETBIT/GETBIT), um por janela de tempo.
+ * Compartilhado entre as instâncias do core; cada operação é um único pipeline.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyBloomRepository {
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * @return para cada conjunto de offsets, se todos os bits estão ligados em pelo menos uma das janelas
+     */
+    public List<Boolean> mightContainAll(List<String> windowKeys, List<long[]> offsetsPerItem) {
+        List<Object> bits = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (long[] offsets : offsetsPerItem) {
+                for (String windowKey : windowKeys) {
+                    for (long offset : offsets) {
+                        redis.getBit(windowKey, offset);
+                    }
+                }
+            }
+            return null;
+        });
+
+        List<Boolean> result = new ArrayList<>(offsetsPerItem.size());
+        int index = 0;
+        for (long[] offsets : offsetsPerItem) {
+            boolean found = false;
+            for (int window = 0; window < windowKeys.size(); window++) {
+                boolean all = true;
+                for (int i = 0; i < offsets.length; i++) {
+                    all &= Boolean.TRUE.equals(bits.get(index++));
+                }
+                found |= all;
+            }
+            result.add(found);
+        }
+        return result;
+    }
+
+    /**
+     * Liga os bits na janela atual e soma as inserções no contador da janela.
+     * @return total de inserções da janela após esta chamada
+     */
+    public long addAll(String windowKey, String countKey, List<long[]> offsetsPerItem, Duration ttl) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (long[] offsets : offsetsPerItem) {
+                for (long offset : offsets) {
+                    redis.setBit(windowKey, offset, true);
+                }
+            }
+            redis.incrBy(countKey, offsetsPerItem.size());
+            redis.expire(windowKey, ttl.toSeconds());
+            redis.expire(countKey, ttl.toSeconds());
+            return null;
+        });
+
+        return (Long) results.get(results.size() - 3);
+    }
+}
@@ -2,10 +2,18 @@ package com.notification.core.repository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -14,30 +22,147 @@ import java.util.Optional;
 public class IdempotencyRepository {
 
     private static final String KEY_PREFIX = "idempotency:";
+    private static final String SNAPSHOT_PREFIX = "idempotency:snapshot:";
+
+    /**
+     * Valor gravado enquanto a requisição dona da reserva ainda está processando.
+     */
+    public static final String PENDING_PREFIX = "pending:";
+
+    /**
+     * SET NX do marcador pending; se a key já existe devolve o valor atual e o snapshot da resposta,
+     * tudo no mesmo round trip. Retorno: {"reserved"} ou {"exists", valor, snapshot ou ""}.
+     */
+    private static final RedisScript<List> RESERVE_SCRIPT = RedisScript.of("""
+            if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[2]) then
+                return {'reserved'}
+            end
+            return {'exists', redis.call('GET', KEYS[1]) or '', redis.call('GET', KEYS[2]) or ''}
+            """, List.class);
+
+    /**
+     * Remove a reserva só se ela ainda for deste dono (o marcador pode ter expirado e sido reservado por outro).
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
 
     private final StringRedisTemplate redisTemplate;
 
     public void register(String idempotencyKey, String notificationId, long ttl) {
-        String key = KEY_PREFIX + idempotencyKey;
+        String key = key(idempotencyKey);
         redisTemplate.opsForValue().set(key, notificationId, Duration.ofSeconds(ttl));
         log.debug("Registered idempotency key: {} -> {}", idempotencyKey, notificationId);
     }
 
+    /**
+     * Registra vários mapeamentos em um único round trip (pipeline).
+     */
+    public void registerAll(Map<String, String> notificationIdsByKey, long ttl) {
+        if (notificationIdsByKey.isEmpty()) {
+            return;
+        }
+
+        Expiration expiration = Expiration.seconds(ttl);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            notificationIdsByKey.forEach((idempotencyKey, notificationId) -> connection.stringCommands().set(
+                    key(idempotencyKey).getBytes(StandardCharsets.UTF_8),
+                    notificationId.getBytes(StandardCharsets.UTF_8),
+                    expiration,
+                    RedisStringCommands.SetOption.upsert()));
+            return null;
+        });
+        log.debug("Registered {} idempotency keys", notificationIdsByKey.size());
+    }
+
+    /**
+     * @return vazio se a reserva foi criada; senão {valor atual, snapshot (vazio se não houver)}
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<List<String>> reserve(String idempotencyKey, String pendingValue, long pendingTtl) {
+        List<String> result = redisTemplate.execute(RESERVE_SCRIPT,
+                List.of(key(idempotencyKey), snapshotKey(idempotencyKey)),
+                pendingValue, String.valueOf(pendingTtl));
+
+        if (result == null || result.isEmpty() || "reserved".equals(result.get(0))) {
+            return Optional.empty();
+        }
+        return Optional.of(result.subList(1, result.size()));
+    }
+
+    /**
+     * Troca o marcador pending pelo id da notificação e grava o snapshot da resposta, num único round trip.
+     */
+    public void complete(String idempotencyKey, String notificationId, String snapshot, long ttl) {
+        Expiration expiration = Expiration.seconds(ttl);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().set(snapshotKey(idempotencyKey).getBytes(StandardCharsets.UTF_8),
+                    snapshot.getBytes(StandardCharsets.UTF_8), expiration, RedisStringCommands.SetOption.upsert());
+            connection.stringCommands().set(key(idempotencyKey).getBytes(StandardCharsets.UTF_8),
+                    notificationId.getBytes(StandardCharsets.UTF_8), expiration, RedisStringCommands.SetOption.upsert());
+            return null;
+        });
+        log.debug("Completed idempotency key: {} -> {}", idempotencyKey, notificationId);
+    }
+
+    public boolean release(String idempotencyKey, String pendingValue) {
+        Long deleted = redisTemplate.execute(RELEASE_SCRIPT, List.of(key(idempotencyKey)), pendingValue);
+        return deleted != null && deleted > 0;
+    }
+
     public Optional<String> findNotificationId(String idempotencyKey) {
-        String key = KEY_PREFIX + idempotencyKey;
+        String key = key(idempotencyKey);
         String notificationId = redisTemplate.opsForValue().get(key);
         return Optional.ofNullable(notificationId);
     }
 
+    /**
+     * Busca vários idempotency keys com um único MGET. Keys ausentes ou ainda reservadas (pending) não aparecem no mapa.
+     */
+    public Map<String, String> findNotificationIds(List<String> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return Map.of();
+        }
+
+        List<String> keys = idempotencyKeys.stream().map(IdempotencyRepository::key).toList();
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+
+        Map<String, String> found = new HashMap<>();
+        if (values == null) {
+            return found;
+        }
+
+        for (int i = 0; i < idempotencyKeys.size(); i++) {
+            if (values.get(i) != null && !values.get(i).startsWith(PENDING_PREFIX)) {
+                found.put(idempotencyKeys.get(i), values.get(i));
+            }
+        }
+        return found;
+    }
+
     public boolean exists(String idempotencyKey) {
-        String key = KEY_PREFIX + idempotencyKey;
+        String key = key(idempotencyKey);
         return Boolean.TRUE.equals(redisTemplate.hasKey(key));
     }
 
     public void delete(String idempotencyKey) {
-        String key = KEY_PREFIX + idempotencyKey;
+        String key = key(idempotencyKey);
         redisTemplate.delete(key);
         log.debug("Deleted idempotency key: {}", idempotencyKey);
     }
-}
 
+    /**
+     * A idempotency key vai como hash tag: a chave e o snapshot caem no mesmo slot do Redis Cluster,
+     * o que o RESERVE_SCRIPT exige por acessar as duas.
+     */
+    private static String key(String idempotencyKey) {
+        return KEY_PREFIX + "{" + idempotencyKey + "}";
+    }
+
+    private static String snapshotKey(String idempotencyKey) {
+        return SNAPSHOT_PREFIX + "{" + idempotencyKey + "}";
+    }
+}
@@ -0,0 +1,155 @@
+package com.notification.core.repository;
+
+import com.notification.core.dto.NotificationSentEvent;
+import com.notification.core.model.Channel;
+import com.notification.core.model.Notification;
+import com.notification.core.model.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Escrita em lote de notificações via JDBC, usada pelo envio em massa.
+ * Evita o custo do persistence context e de um round trip por linha.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notifications (id, client_id, idempotency_key, channel, recipient, subject, content,
+                                       template_code, template_id, template_version, status, priority,
+                                       retry_count, max_retries, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (idempotency_key) DO NOTHING
+            """;
+
+    /**
+     * O status anterior vem de um SELECT ... FOR UPDATE (em ordem de id, sem deadlock entre lotes): sob READ COMMITTED
+     * ele devolve a versão mais recente da linha já travada, então uma transição concorrente commitada antes do
+     * UPDATE não deixa previous_status obsoleto.
+     */
+    private static final String MARK_SENT_SQL = """
+            WITH v(id, provider_id, provider_message_id, sent_at) AS (VALUES %s),
+                 old AS (
+                     SELECT o.id, o.status
+                       FROM notifications o
+                       JOIN v ON v.id = o.id
+                      ORDER BY o.id
+                        FOR UPDATE OF o
+                 )
+            UPDATE notifications n
+               SET status = 'SENT',
+                   provider_id = v.provider_id,
+                   provider_message_id = v.provider_message_id,
+                   sent_at = v.sent_at,
+                   updated_at = v.sent_at
+              FROM v
+              JOIN old ON old.id = v.id
+             WHERE n.id = v.id
+            RETURNING n.id, n.channel, n.created_at, old.status AS previous_status
+            """;
+
+    private static final String SENT_ROW = "(?, ?, ?, CAST(? AS timestamp))";
+
+    /**
+     * Limite de linhas por UPDATE (4 parâmetros por linha, bem abaixo do limite de 32767 do driver)
+     */
+    private static final int MAX_ROWS_PER_UPDATE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notification.batch.insert-chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Insere as notificações (ids já atribuídos) e retorna apenas as que foram de fato gravadas.
+     * Linhas cujo idempotency key já existe são ignoradas pelo ON CONFLICT.
+     */
+    public List<Notification> insertAll(List<Notification> notifications) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, notifications, chunkSize, (ps, n) -> {
+            ps.setString(1, n.getId());
+            ps.setString(2, n.getClientId());
+            ps.setString(3, n.getIdempotencyKey());
+            ps.setString(4, n.getChannel().name());
+            ps.setString(5, n.getRecipient());
+            ps.setString(6, n.getSubject());
+            ps.setString(7, n.getContent());
+            ps.setString(8, n.getTemplateCode());
+            ps.setObject(9, n.getTemplateId(), Types.OTHER);
+            if (n.getTemplateVersion() != null) {
+                ps.setInt(10, n.getTemplateVersion());
+            } else {
+                ps.setNull(10, Types.INTEGER);
+            }
+            ps.setString(11, n.getStatus().name());
+            ps.setString(12, n.getPriority().name());
+            ps.setInt(13, n.getRetryCount());
+            ps.setInt(14, n.getMaxRetries());
+            ps.setTimestamp(15, Timestamp.valueOf(n.getCreatedAt()));
+            ps.setTimestamp(16, Timestamp.valueOf(n.getUpdatedAt()));
+        });
+
+        List<Notification> inserted = new ArrayList<>(notifications.size());
+        int index = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count != 0) {
+                    inserted.add(notifications.get(index));
+                }
+                index++;
+            }
+        }
+
+        log.debug("Batch insert finished: requested={}, inserted={}", notifications.size(), inserted.size());
+        return inserted;
+    }
+
+    /**
+     * Marca as notificações como SENT com um único UPDATE ... FROM (VALUES ...) por chunk, sem carregar
+     * as entidades. Espera ids distintos; ids inexistentes são simplesmente ignorados.
+     * @return as linhas de fato atualizadas
+     */
+    public List<SentUpdate> markAllSent(List<NotificationSentEvent> events, LocalDateTime sentAt) {
+        List<SentUpdate> updated = new ArrayList<>(events.size());
+        Timestamp timestamp = Timestamp.valueOf(sentAt);
+
+        for (int from = 0; from < events.size(); from += MAX_ROWS_PER_UPDATE) {
+            List<NotificationSentEvent> chunk = events.subList(from, Math.min(from + MAX_ROWS_PER_UPDATE, events.size()));
+            String sql = MARK_SENT_SQL.formatted(String.join(", ", Collections.nCopies(chunk.size(), SENT_ROW)));
+
+            updated.addAll(jdbcTemplate.query(sql, ps -> {
+                int index = 1;
+                for (NotificationSentEvent event : chunk) {
+                    ps.setString(index++, event.getNotificationId());
+                    ps.setString(index++, event.getProviderId());
+                    ps.setString(index++, event.getProviderMessageId());
+                    ps.setTimestamp(index++, timestamp);
+                }
+            }, (rs, rowNum) -> new SentUpdate(
+                    rs.getString("id"),
+                    Channel.valueOf(rs.getString("channel")),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    NotificationStatus.valueOf(rs.getString("previous_status")))));
+        }
+
+        log.debug("Batch status update finished: requested={}, updated={}", events.size(), updated.size());
+        return updated;
+    }
+
+    /**
+     * @param previousStatus status antes do UPDATE (lido com a linha travada)
+     */
+    public record SentUpdate(String id, Channel channel, LocalDateTime createdAt, NotificationStatus previousStatus) {
+    }
+}
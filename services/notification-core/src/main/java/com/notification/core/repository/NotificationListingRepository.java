@@ -0,0 +1,79 @@
+package com.notification.core.repository;
+
+import com.notification.core.dto.NotificationCursor;
+import com.notification.core.dto.NotificationListItem;
+import com.notification.core.model.Channel;
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.model.Priority;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Listagem de notificações por cliente com paginação keyset sobre (client_id, created_at, id).
+ * O seek usa o índice idx_notifications_client_created_id, então qualquer página custa o mesmo que a primeira;
+ * não há count(*) nem leitura de content, a menos que pedido.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationListingRepository {
+
+    private static final String SELECT_SQL = """
+            SELECT id, idempotency_key, channel, recipient, subject, template_code, status, priority,
+                   retry_count, created_at, updated_at, sent_at%s
+              FROM notifications
+             WHERE client_id = ?%s
+             ORDER BY created_at DESC, id DESC
+             LIMIT ?
+            """;
+
+    private static final String CONTENT_COLUMN = ", content";
+    private static final String SEEK_CONDITION = " AND (created_at, id) < (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Notificações do cliente da mais recente para a mais antiga, estritamente depois do cursor (null = início).
+     */
+    public List<NotificationListItem> findByClientId(String clientId, NotificationCursor after, int limit, boolean includeContent) {
+        String sql = SELECT_SQL.formatted(includeContent ? CONTENT_COLUMN : "", after != null ? SEEK_CONDITION : "");
+
+        return jdbcTemplate.query(sql, ps -> {
+            int index = 1;
+            ps.setString(index++, clientId);
+            if (after != null) {
+                ps.setTimestamp(index++, Timestamp.valueOf(after.createdAt()));
+                ps.setString(index++, after.id());
+            }
+            ps.setInt(index, limit);
+        }, (rs, rowNum) -> mapRow(rs, includeContent));
+    }
+
+    private NotificationListItem mapRow(ResultSet rs, boolean includeContent) throws SQLException {
+        return NotificationListItem.builder()
+                .notificationId(rs.getString("id"))
+                .idempotencyKey(rs.getString("idempotency_key"))
+                .channel(Channel.valueOf(rs.getString("channel")))
+                .recipient(rs.getString("recipient"))
+                .subject(rs.getString("subject"))
+                .templateCode(rs.getString("template_code"))
+                .status(NotificationStatus.valueOf(rs.getString("status")))
+                .priority(Priority.valueOf(rs.getString("priority")))
+                .retryCount(rs.getInt("retry_count"))
+                .content(includeContent ? rs.getString("content") : null)
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                .sentAt(toLocalDateTime(rs.getTimestamp("sent_at")))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -3,16 +3,23 @@ package com.notification.core.repository;
 import com.notification.core.model.Channel;
 import com.notification.core.model.Notification;
 import com.notification.core.model.NotificationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Notification entity
@@ -20,11 +27,24 @@ import java.util.Optional;
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, String> {
 
+    /**
+     * Find notification by id with a row lock (SELECT ... FOR UPDATE), so the current status can't change until commit
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.id = :id")
+    Optional<Notification> findByIdWithLock(@Param("id") String id);
+
     /**
      * Find notification by idempotency key
      */
     Optional<Notification> findByIdempotencyKey(String idempotencyKey);
 
+    /**
+     * Find the notification ids already registered for a set of idempotency keys
+     */
+    @Query("SELECT n.idempotencyKey AS idempotencyKey, n.id AS id FROM Notification n WHERE n.idempotencyKey IN :keys")
+    List<IdempotencyKeyView> findIdsByIdempotencyKeyIn(@Param("keys") Collection<String> keys);
+
     /**
      * Check if idempotency key exists
      */
@@ -41,17 +61,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Stri
     Page<Notification> findByClientIdAndChannel(String clientId, Channel channel, Pageable pageable);
 
     /**
-     * Find notifications by status
+     * Find RETRYING notifications whose backoff has elapsed, locking them for the caller's transaction.
+     * SKIP LOCKED lets several RetryScheduler instances claim disjoint batches.
      */
-    List<Notification> findByStatus(NotificationStatus status);
-
-    /**
-     * Find notifications eligible for retry
-     */
-    @Query("SELECT n FROM Notification n WHERE n.status = 'RETRYING' " +
-           "AND n.retryCount < n.maxRetries " +
-           "AND n.updatedAt < :before")
-    List<Notification> findEligibleForRetry(@Param("before") LocalDateTime before);
+    @Query(value = "SELECT * FROM notifications WHERE status = 'RETRYING' " +
+                   "AND next_retry_at <= :now " +
+                   "ORDER BY next_retry_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Notification> findEligibleForRetry(@Param("now") LocalDateTime now, @Param("limit") int limit);
 
     /**
      * Count notifications by status
@@ -64,9 +81,30 @@ public interface NotificationRepository extends JpaRepository<Notification, Stri
     long countByClientIdAndChannel(String clientId, Channel channel);
 
     /**
-     * Find recent notifications (last 24h)
+     * Stream a client's notifications for export, oldest first, over a server-side cursor (500 rows per fetch).
+     * Must run inside a read-only transaction; the caller detaches each entity after use.
+     * Null filters are ignored.
      */
-    @Query("SELECT n FROM Notification n WHERE n.createdAt >= :since ORDER BY n.createdAt DESC")
-    List<Notification> findRecentNotifications(@Param("since") LocalDateTime since);
-}
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT n FROM Notification n WHERE n.clientId = :clientId " +
+           "AND (:channel IS NULL OR n.channel = :channel) " +
+           "AND (:status IS NULL OR n.status = :status) " +
+           "AND (:from IS NULL OR n.createdAt >= :from) " +
+           "AND (:to IS NULL OR n.createdAt < :to) " +
+           "ORDER BY n.createdAt, n.id")
+    Stream<Notification> streamForExport(@Param("clientId") String clientId,
+                                         @Param("channel") Channel channel,
+                                         @Param("status") NotificationStatus status,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    interface IdempotencyKeyView {
+        String getIdempotencyKey();
 
+        String getId();
+    }
+}
@@ -0,0 +1,74 @@
+package com.notification.core.repository;
+
+import com.notification.core.model.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acesso à tabela notification_status_counts (uma linha por status).
+ * Os deltas são somados no banco, então várias instâncias do core podem gravar sem coordenação.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationStatusCountRepository {
+
+    private static final String ADD_SQL = """
+            INSERT INTO notification_status_counts (status, count, updated_at)
+            VALUES (?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (status) DO UPDATE
+               SET count = notification_status_counts.count + EXCLUDED.count,
+                   updated_at = EXCLUDED.updated_at
+            """;
+
+    // pg_try_advisory_xact_lock(int, int): só uma instância recalcula por vez
+    private static final int RESEED_LOCK_NAMESPACE = 0x5343;
+
+    private static final String RESEED_SQL = """
+            UPDATE notification_status_counts c
+               SET count = (SELECT COUNT(*) FROM notifications n WHERE n.status = c.status),
+                   updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<NotificationStatus, Long> findAll() {
+        Map<NotificationStatus, Long> counts = new EnumMap<>(NotificationStatus.class);
+        jdbcTemplate.query("SELECT status, count FROM notification_status_counts", rs -> {
+            counts.put(NotificationStatus.valueOf(rs.getString("status")), rs.getLong("count"));
+        });
+        return counts;
+    }
+
+    /**
+     * Soma os deltas numa única transação; as linhas são gravadas na ordem do enum para evitar deadlock entre instâncias.
+     */
+    @Transactional
+    public void addAll(Map<NotificationStatus, Long> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        new EnumMap<>(deltas).forEach((status, delta) -> args.add(new Object[]{status.name(), delta}));
+        jdbcTemplate.batchUpdate(ADD_SQL, args);
+    }
+
+    /**
+     * Regrava as contagens a partir de count(*) num único statement (um snapshot). Varre toda a tabela
+     * notifications, e deltas ainda não gravados por outras instâncias (de linhas já commitadas) são somados de
+     * novo depois, então só deve ser usado para corrigir uma contagem sabidamente errada.
+     * @return false se outra instância já estava recalculando
+     */
+    @Transactional
+    public boolean reseed() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?, 0)", Boolean.class, RESEED_LOCK_NAMESPACE))) {
+            return false;
+        }
+        jdbcTemplate.update(RESEED_SQL);
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package com.notification.core.repository;
+
+import com.notification.core.model.OutboxEvent;
+import com.notification.core.model.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Acesso JDBC à tabela notification_outbox.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    // Primeiro argumento de pg_try_advisory_xact_lock(int, int); o segundo é o shard
+    private static final int SHARD_LOCK_NAMESPACE = 0x4F42;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notification_outbox (notification_id, event_type, payload, shard, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_BATCH_SQL = """
+            SELECT id, notification_id, event_type, payload, shard, attempts, created_at
+            FROM notification_outbox
+            WHERE shard = ? AND parked_at IS NULL
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String INCREMENT_ATTEMPTS_SQL = """
+            WITH updated AS (
+                UPDATE notification_outbox
+                   SET attempts = attempts + 1,
+                       parked_at = CASE WHEN attempts + 1 >= ? THEN CURRENT_TIMESTAMP END
+                 WHERE id = ANY(?)
+                RETURNING id, parked_at
+            )
+            SELECT id FROM updated WHERE parked_at IS NOT NULL
+            """;
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> OutboxEvent.builder()
+            .id(rs.getLong("id"))
+            .notificationId(rs.getString("notification_id"))
+            .eventType(OutboxEventType.valueOf(rs.getString("event_type")))
+            .payload(rs.getString("payload"))
+            .shard(rs.getInt("shard"))
+            .attempts(rs.getInt("attempts"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void saveAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getNotificationId());
+            ps.setString(2, event.getEventType().name());
+            ps.setString(3, event.getPayload());
+            ps.setInt(4, event.getShard());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+
+    /**
+     * Tenta adquirir o shard até o fim da transação corrente. Outra instância que já
+     * esteja drenando o mesmo shard faz esta chamada retornar false sem bloquear.
+     */
+    public boolean tryLockShard(int shard) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class, SHARD_LOCK_NAMESPACE, shard));
+    }
+
+    public List<OutboxEvent> findBatch(int shard, int limit) {
+        return jdbcTemplate.query(SELECT_BATCH_SQL, ROW_MAPPER, shard, limit);
+    }
+
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update("DELETE FROM notification_outbox WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    /**
+     * Conta uma falha de publicação; eventos que chegam a maxAttempts são estacionados (parked_at) e
+     * deixam de ser lidos por {@link #findBatch}.
+     *
+     * @return ids estacionados nesta chamada
+     */
+    public List<Long> incrementAttempts(List<Long> ids, int maxAttempts) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(INCREMENT_ATTEMPTS_SQL, ps -> {
+            ps.setInt(1, maxAttempts);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        }, (rs, rowNum) -> rs.getLong("id"));
+    }
+}
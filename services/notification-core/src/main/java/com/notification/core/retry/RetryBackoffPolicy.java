@@ -0,0 +1,33 @@
+package com.notification.core.retry;
+
+import com.notification.core.model.Channel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Calcula o atraso da n-ésima nova tentativa: initialDelay * multiplier^(n-1), limitado a maxDelay, com jitter.
+ */
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(RetryProperties.class)
+public class RetryBackoffPolicy {
+
+    private final RetryProperties properties;
+
+    /**
+     * @param attempt número da tentativa que falhou (retry_count já incrementado, a partir de 1)
+     */
+    public Duration delay(Channel channel, int attempt) {
+        RetryProperties.Backoff backoff = properties.backoff(channel);
+
+        double base = backoff.getInitialDelay().toMillis() * Math.pow(backoff.getMultiplier(), Math.max(attempt - 1, 0));
+        double capped = Math.min(base, backoff.getMaxDelay().toMillis());
+        double jitter = backoff.getJitter() * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+
+        return Duration.ofMillis(Math.max(0, Math.round(capped * (1 + jitter))));
+    }
+}
@@ -0,0 +1,47 @@
+package com.notification.core.retry;
+
+import com.notification.core.model.Channel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Backoff dos reenvios agendados pelo {@link RetryScheduler}. Cada canal pode ter sua própria
+ * curva (notification.retry.channels.SMS...); os canais sem entrada usam {@link #backoff}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notification.retry")
+public class RetryProperties {
+
+    private int batchSize = 500;
+
+    private Backoff backoff = new Backoff();
+
+    private Map<Channel, Backoff> channels = new EnumMap<>(Channel.class);
+
+    public Backoff backoff(Channel channel) {
+        return channels.getOrDefault(channel, backoff);
+    }
+
+    @Getter
+    @Setter
+    public static class Backoff {
+
+        /**
+         * Espera antes da primeira nova tentativa; as seguintes multiplicam por {@link #multiplier}.
+         */
+        private Duration initialDelay = Duration.ofSeconds(10);
+        private double multiplier = 6.0;
+        private Duration maxDelay = Duration.ofMinutes(10);
+
+        /**
+         * Variação aleatória relativa (0.2 = ±20%), para que falhas simultâneas não voltem juntas.
+         */
+        private double jitter = 0.2;
+    }
+}
@@ -0,0 +1,59 @@
+package com.notification.core.retry;
+
+import com.notification.core.metrics.MetricsService;
+import com.notification.core.model.Notification;
+import com.notification.core.model.OutboxEventType;
+import com.notification.core.repository.NotificationRepository;
+import com.notification.core.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Republica as notificações RETRYING cujo next_retry_at já passou. Os lotes são reivindicados com
+ * FOR UPDATE SKIP LOCKED e gravados no outbox na mesma transação (next_retry_at volta a NULL),
+ * então várias instâncias do core podem rodar o scheduler sem reenviar a mesma notificação.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetryScheduler {
+
+    private final NotificationRepository notificationRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryProperties retryProperties;
+    private final MetricsService metricsService;
+
+    @Scheduled(fixedDelayString = "${notification.retry.poll-interval-ms:1000}")
+    public void dispatchDueRetries() {
+        try {
+            Integer dispatched;
+            do {
+                dispatched = transactionTemplate.execute(status -> dispatchBatch());
+            } while (dispatched != null && dispatched == retryProperties.getBatchSize());
+        } catch (Exception e) {
+            log.error("Retry dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<Notification> due = notificationRepository.findEligibleForRetry(LocalDateTime.now(), retryProperties.getBatchSize());
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        due.forEach(notification -> notification.setNextRetryAt(null));
+        notificationRepository.saveAll(due);
+        outboxService.recordAll(due, OutboxEventType.NOTIFICATION_CREATED);
+
+        due.forEach(notification -> metricsService.incrementRetryDispatched(notification.getChannel()));
+        log.info("Due retries dispatched: count={}", due.size());
+        return due.size();
+    }
+}
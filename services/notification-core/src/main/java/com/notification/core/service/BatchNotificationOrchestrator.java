@@ -0,0 +1,248 @@
+package com.notification.core.service;
+
+import com.notification.core.dto.BatchNotificationRequest;
+import com.notification.core.dto.BatchNotificationResponse;
+import com.notification.core.dto.BatchNotificationResponse.ItemResult;
+import com.notification.core.dto.BatchNotificationResponse.ItemStatus;
+import com.notification.core.dto.BatchRenderTemplateResponse;
+import com.notification.core.dto.NotificationRequest;
+import com.notification.core.dto.RenderTemplateResponse;
+import com.notification.core.exception.QuotaServiceException;
+import com.notification.core.exception.TemplateServiceException;
+import com.notification.core.exception.TemplateServiceUnavailableException;
+import com.notification.core.metrics.SendPhase;
+import com.notification.core.metrics.SendPhaseTracker;
+import com.notification.core.model.Channel;
+import com.notification.core.model.Notification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Executa o mesmo pipeline do {@link NotificationOrchestrator} para um lote inteiro:
+ * idempotência com um MGET, uma reserva de quota por (client, channel), render agrupado e
+ * insert via JDBC batch (notificações + outbox). Cada item recebe seu próprio resultado.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchNotificationOrchestrator {
+
+    private final IdempotencyService idempotencyService;
+    private final QuotaValidationService quotaValidationService;
+    private final TemplateService templateService;
+    private final NotificationService notificationService;
+    private final SendPhaseTracker phaseTracker;
+
+    @Value("${notification.batch.render-chunk-size:500}")
+    private int renderChunkSize;
+
+    public BatchNotificationResponse sendBatch(BatchNotificationRequest batch) {
+        List<NotificationRequest> requests = batch.getNotifications();
+        String batchId = UUID.randomUUID().toString();
+        ItemResult[] results = new ItemResult[requests.size()];
+
+        log.info("Processing notification batch: batchId={}, size={}", batchId, requests.size());
+
+        List<Integer> pending = phaseTracker.track(SendPhase.VALIDATE,
+                () -> filterDuplicates(requests, results));
+
+        Map<QuotaGroup, List<Integer>> reserved = phaseTracker.track(SendPhase.RESERVE,
+                () -> reserveQuota(requests, pending, results, batchId));
+
+        Map<Integer, RenderTemplateResponse> rendered = phaseTracker.track(SendPhase.RENDER,
+                () -> renderTemplates(requests, reserved, results));
+
+        List<Notification> created = phaseTracker.track(SendPhase.PERSIST,
+                () -> persist(requests, rendered, results));
+
+        phaseTracker.track(SendPhase.RESERVE, () -> releaseUnusedQuota(requests, reserved, results, batchId));
+
+        phaseTracker.track(SendPhase.PUBLISH, () -> registerIdempotency(created));
+
+        BatchNotificationResponse response = BatchNotificationResponse.of(Arrays.asList(results));
+        log.info("Notification batch processed: batchId={}, total={}, accepted={}, duplicated={}, rejected={}",
+                batchId, response.getTotal(), response.getAccepted(), response.getDuplicated(), response.getRejected());
+
+        return response;
+    }
+
+    private List<Integer> filterDuplicates(List<NotificationRequest> requests, ItemResult[] results) {
+        List<String> keys = requests.stream()
+                .map(NotificationRequest::getIdempotencyKey)
+                .distinct()
+                .toList();
+
+        Map<String, String> existing = idempotencyService.findNotificationIds(keys);
+
+        Set<String> seen = new HashSet<>();
+        List<Integer> pending = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            String key = requests.get(i).getIdempotencyKey();
+
+            if (existing.containsKey(key)) {
+                results[i] = result(i, requests.get(i), existing.get(key), ItemStatus.DUPLICATE,
+                        "Notification already processed for this idempotency key");
+            } else if (!seen.add(key)) {
+                results[i] = result(i, requests.get(i), null, ItemStatus.DUPLICATE,
+                        "Idempotency key repeated within the batch");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        log.debug("Idempotency check finished: pending={}, duplicated={}", pending.size(), requests.size() - pending.size());
+        return pending;
+    }
+
+    private Map<QuotaGroup, List<Integer>> reserveQuota(List<NotificationRequest> requests, List<Integer> pending,
+                                                        ItemResult[] results, String batchId) {
+        Map<QuotaGroup, List<Integer>> groups = pending.stream()
+                .collect(Collectors.groupingBy(i -> QuotaGroup.of(requests.get(i)), LinkedHashMap::new, Collectors.toList()));
+
+        Map<QuotaGroup, List<Integer>> reserved = new LinkedHashMap<>();
+
+        groups.forEach((group, indices) -> {
+            long granted;
+            try {
+                granted = quotaValidationService.reserveQuota(group.clientId(), group.channel(), indices.size(), reference(batchId));
+            } catch (QuotaServiceException e) {
+                log.error("Quota reservation failed: clientId={}, channel={}, error={}", group.clientId(), group.channel(), e.getMessage());
+                indices.forEach(i -> results[i] = result(i, requests.get(i), null, ItemStatus.FAILED,
+                        "Unable to validate quota. Please try again later."));
+                return;
+            }
+
+            int accepted = (int) Math.min(granted, indices.size());
+            reserved.put(group, new ArrayList<>(indices.subList(0, accepted)));
+
+            indices.subList(accepted, indices.size()).forEach(i -> results[i] = result(i, requests.get(i), null,
+                    ItemStatus.QUOTA_EXCEEDED,
+                    String.format("Quota exceeded for client %s on channel %s", group.clientId(), group.channel())));
+        });
+
+        return reserved;
+    }
+
+    private Map<Integer, RenderTemplateResponse> renderTemplates(List<NotificationRequest> requests,
+                                                                 Map<QuotaGroup, List<Integer>> reserved,
+                                                                 ItemResult[] results) {
+        List<Integer> indices = reserved.values().stream().flatMap(List::stream).toList();
+        Map<Integer, RenderTemplateResponse> rendered = new HashMap<>();
+
+        for (int from = 0; from < indices.size(); from += renderChunkSize) {
+            List<Integer> chunk = indices.subList(from, Math.min(from + renderChunkSize, indices.size()));
+
+            try {
+                List<BatchRenderTemplateResponse.RenderResult> renderResults = templateService.renderTemplates(
+                        chunk.stream().map(requests::get).toList());
+
+                for (int j = 0; j < chunk.size(); j++) {
+                    int i = chunk.get(j);
+                    BatchRenderTemplateResponse.RenderResult renderResult = renderResults.get(j);
+
+                    if (renderResult.isSuccess()) {
+                        rendered.put(i, renderResult.toRenderTemplateResponse());
+                    } else {
+                        results[i] = result(i, requests.get(i), null, ItemStatus.TEMPLATE_ERROR, renderResult.getMessage());
+                    }
+                }
+            } catch (TemplateServiceException | TemplateServiceUnavailableException e) {
+                log.error("Template batch render failed: size={}, error={}", chunk.size(), e.getMessage());
+                chunk.forEach(i -> results[i] = result(i, requests.get(i), null, ItemStatus.FAILED,
+                        "Unable to render template. Please try again later."));
+            }
+        }
+
+        return rendered;
+    }
+
+    private List<Notification> persist(List<NotificationRequest> requests, Map<Integer, RenderTemplateResponse> rendered,
+                                       ItemResult[] results) {
+        if (rendered.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> indices = rendered.keySet().stream().sorted().toList();
+
+        List<Notification> created;
+        try {
+            created = notificationService.createNotifications(
+                    indices.stream().map(requests::get).toList(),
+                    indices.stream().map(rendered::get).toList());
+        } catch (DataAccessException e) {
+            log.error("Notification batch insert failed: size={}, error={}", indices.size(), e.getMessage(), e);
+            indices.forEach(i -> results[i] = result(i, requests.get(i), null, ItemStatus.FAILED,
+                    "Unable to persist notification. Please try again later."));
+            return List.of();
+        }
+
+        Map<String, Notification> byKey = created.stream()
+                .collect(Collectors.toMap(Notification::getIdempotencyKey, Function.identity()));
+
+        for (int i : indices) {
+            Notification notification = byKey.get(requests.get(i).getIdempotencyKey());
+            results[i] = notification != null
+                    ? result(i, requests.get(i), notification.getId(), ItemStatus.CREATED, "Notification created successfully")
+                    : result(i, requests.get(i), null, ItemStatus.DUPLICATE, "Notification already processed for this idempotency key");
+        }
+
+        return created;
+    }
+
+    /**
+     * Devolve a quota reservada para itens que não viraram notificação (erro de template, falha ou corrida de idempotência).
+     */
+    private void releaseUnusedQuota(List<NotificationRequest> requests, Map<QuotaGroup, List<Integer>> reserved,
+                                    ItemResult[] results, String batchId) {
+        reserved.forEach((group, indices) -> {
+            long unused = indices.stream()
+                    .filter(i -> results[i].getStatus() != ItemStatus.CREATED)
+                    .count();
+
+            quotaValidationService.releaseQuota(group.clientId(), group.channel(), unused, reference(batchId));
+        });
+    }
+
+    private void registerIdempotency(List<Notification> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+
+        try {
+            idempotencyService.registerAll(created.stream()
+                    .collect(Collectors.toMap(Notification::getIdempotencyKey, Notification::getId)));
+        } catch (Exception e) {
+            // O banco continua sendo a fonte da verdade (unique em idempotency_key)
+            log.warn("Failed to register idempotency keys in cache: size={}, error={}", created.size(), e.getMessage());
+        }
+    }
+
+    private ItemResult result(int index, NotificationRequest request, String notificationId, ItemStatus status, String message) {
+        return ItemResult.builder()
+                .index(index)
+                .idempotencyKey(request.getIdempotencyKey())
+                .notificationId(notificationId)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private String reference(String batchId) {
+        return "batch:" + batchId;
+    }
+
+    private record QuotaGroup(String clientId, Channel channel) {
+
+        static QuotaGroup of(NotificationRequest request) {
+            return new QuotaGroup(request.getClientId(), request.getChannel());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.notification.core.service;
+
+import com.notification.core.repository.IdempotencyBloomRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter rotativo das idempotency keys já gravadas, para pular a consulta ao banco quando a key é
+ * certamente nova. Uma janela (bitset em Redis) por idempotency.bloom.window, mantendo as últimas
+ * idempotency.bloom.windows; keys mais antigas que isso deixam de ser conhecidas pelo filtro (o unique em
+ * idempotency_key continua valendo). Erros de Redis respondem "talvez exista", caindo na consulta ao banco.
+ * Métricas: idempotency_bloom_memory_bytes, idempotency_bloom_estimated_fpp e idempotency_bloom_checks_total.
+ */
+@Slf4j
+@Component
+public class IdempotencyBloomFilter {
+
+    private static final String KEY_PREFIX = "idempotency:bloom:";
+
+    private final IdempotencyBloomRepository bloomRepository;
+    private final boolean enabled;
+    private final Duration window;
+    private final int windows;
+    private final long bits;
+    private final int hashes;
+
+    private final AtomicLong currentWindow = new AtomicLong(-1);
+    private final AtomicLong currentInsertions = new AtomicLong();
+
+    public IdempotencyBloomFilter(IdempotencyBloomRepository bloomRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${idempotency.bloom.enabled:true}") boolean enabled,
+                                  @Value("${idempotency.bloom.expected-insertions:5000000}") long expectedInsertions,
+                                  @Value("${idempotency.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${idempotency.bloom.window:1d}") Duration window,
+                                  @Value("${idempotency.bloom.windows:7}") int windows) {
+        this.bloomRepository = bloomRepository;
+        this.enabled = enabled;
+        this.window = window;
+        this.windows = windows;
+        this.bits = optimalBits(expectedInsertions, falsePositiveRate);
+        this.hashes = optimalHashes(expectedInsertions, bits);
+
+        if (enabled) {
+            Gauge.builder("idempotency_bloom_memory_bytes", this, filter -> (double) filter.bits / 8 * filter.windows)
+                    .description("Memória alocada no Redis pelos bitsets do Bloom filter de idempotência")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("idempotency_bloom_estimated_fpp", this, IdempotencyBloomFilter::estimatedFalsePositiveRate)
+                    .description("Taxa estimada de falso positivo da janela atual do Bloom filter de idempotência")
+                    .register(meterRegistry);
+        }
+
+        log.info("Idempotency bloom filter initialized: enabled={}, bits={}, hashes={}, window={}, windows={}",
+                enabled, bits, hashes, window, windows);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return false só quando a key certamente nunca foi registrada nas janelas retidas
+     */
+    public boolean mightContain(String idempotencyKey) {
+        return mightContainAll(List.of(idempotencyKey)).get(0);
+    }
+
+    public List<Boolean> mightContainAll(List<String> idempotencyKeys) {
+        if (!enabled || idempotencyKeys.isEmpty()) {
+            return idempotencyKeys.stream().map(key -> true).toList();
+        }
+
+        try {
+            return bloomRepository.mightContainAll(windowKeys(), idempotencyKeys.stream().map(this::offsets).toList());
+        } catch (Exception e) {
+            log.warn("Bloom filter check failed, assuming keys may exist: size={}, error={}", idempotencyKeys.size(), e.getMessage());
+            return idempotencyKeys.stream().map(key -> true).toList();
+        }
+    }
+
+    public void add(String idempotencyKey) {
+        addAll(List.of(idempotencyKey));
+    }
+
+    public void addAll(Collection<String> idempotencyKeys) {
+        if (!enabled || idempotencyKeys.isEmpty()) {
+            return;
+        }
+
+        long windowIndex = windowIndex();
+        List<long[]> offsets = new ArrayList<>(idempotencyKeys.size());
+        idempotencyKeys.forEach(key -> offsets.add(offsets(key)));
+
+        try {
+            long insertions = bloomRepository.addAll(KEY_PREFIX + windowIndex, KEY_PREFIX + windowIndex + ":count",
+                    offsets, window.multipliedBy(windows));
+            currentWindow.set(windowIndex);
+            currentInsertions.set(insertions);
+        } catch (Exception e) {
+            log.warn("Failed to add keys to bloom filter: size={}, error={}", idempotencyKeys.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * (1 - e^(-k·n/m))^k com n = inserções da janela atual (visto pelo último add desta instância).
+     */
+    double estimatedFalsePositiveRate() {
+        long insertions = currentWindow.get() == windowIndex() ? currentInsertions.get() : 0;
+        return Math.pow(1 - Math.exp(-(double) hashes * insertions / bits), hashes);
+    }
+
+    private List<String> windowKeys() {
+        long current = windowIndex();
+        List<String> keys = new ArrayList<>(windows);
+        for (int i = 0; i < windows; i++) {
+            keys.add(KEY_PREFIX + (current - i));
+        }
+        return keys;
+    }
+
+    private long windowIndex() {
+        return System.currentTimeMillis() / window.toMillis();
+    }
+
+    /**
+     * Double hashing (Kirsch-Mitzenmacher) sobre os 128 primeiros bits do SHA-256 da key.
+     */
+    private long[] offsets(String idempotencyKey) {
+        ByteBuffer digest = ByteBuffer.wrap(sha256(idempotencyKey));
+        long hash1 = digest.getLong();
+        long hash2 = digest.getLong();
+
+        long[] offsets = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            offsets[i] = Math.floorMod(hash1 + i * hash2, bits);
+        }
+        return offsets;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static long optimalBits(long expectedInsertions, double falsePositiveRate) {
+        return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    }
+
+    static int optimalHashes(long expectedInsertions, long bits) {
+        return Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    }
+}
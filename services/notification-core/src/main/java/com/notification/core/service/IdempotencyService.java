@@ -1,5 +1,9 @@
 package com.notification.core.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.core.dto.NotificationResponse;
+import com.notification.core.metrics.MetricsService;
 import com.notification.core.model.Notification;
 import com.notification.core.repository.IdempotencyRepository;
 import com.notification.core.repository.NotificationRepository;
@@ -8,7 +12,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -17,31 +26,179 @@ public class IdempotencyService {
 
     private final IdempotencyRepository idempotencyRepository;
     private final NotificationRepository notificationRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyBloomFilter bloomFilter;
+    private final MetricsService metricsService;
 
     @Value("${idempotency.ttl:86400}")
     private long ttl;
 
-    public Optional<Notification> findByIdempotencyKey(String idempotencyKey) {
-        log.debug("Checking idempotency key: {}", idempotencyKey);
+    @Value("${idempotency.pending-ttl:60}")
+    private long pendingTtl;
 
-        Optional<String> cachedNotificationId = idempotencyRepository.findNotificationId(idempotencyKey);
-        if (cachedNotificationId.isPresent()) {
-            log.debug("Found in Redis cache: {} -> {}", idempotencyKey, cachedNotificationId.get());
-            return notificationRepository.findById(cachedNotificationId.get());
+    /**
+     * Reserva atômica da key (SET NX com marcador pending) antes de qualquer chamada de quota ou template.
+     * Duplicatas são respondidas pelo snapshot gravado em {@link #complete}, sem ler o banco.
+     */
+    public Reservation reserve(String idempotencyKey) {
+        String pendingValue = IdempotencyRepository.PENDING_PREFIX + UUID.randomUUID();
+        Optional<List<String>> existing = idempotencyRepository.reserve(idempotencyKey, pendingValue, pendingTtl);
+
+        if (existing.isEmpty()) {
+            log.debug("Idempotency key reserved: {}", idempotencyKey);
+            return Reservation.reserved(pendingValue);
+        }
+
+        String value = existing.get().get(0);
+        if (value.startsWith(IdempotencyRepository.PENDING_PREFIX)) {
+            log.debug("Idempotency key in progress: {}", idempotencyKey);
+            return new Reservation(ReservationStatus.IN_PROGRESS, null, null, null);
+        }
+
+        log.debug("Found in Redis cache: {} -> {}", idempotencyKey, value);
+        return new Reservation(ReservationStatus.COMPLETED, null, value, readSnapshot(existing.get().get(1)));
+    }
+
+    /**
+     * Fallback para keys que já saíram do Redis (TTL) mas existem no banco.
+     * Keys que o Bloom filter garante nunca terem sido registradas não chegam ao banco.
+     */
+    public Optional<Notification> findInDatabase(String idempotencyKey) {
+        if (!bloomFilter.mightContain(idempotencyKey)) {
+            metricsService.incrementIdempotencyBloom("negative", 1);
+            return Optional.empty();
         }
 
         Optional<Notification> notification = notificationRepository.findByIdempotencyKey(idempotencyKey);
+        if (bloomFilter.isEnabled()) {
+            metricsService.incrementIdempotencyBloom(notification.isPresent() ? "positive" : "false_positive", 1);
+        }
         if (notification.isPresent()) {
-            log.debug("Found in database: {} -> {}", idempotencyKey, notification.get().getId());
-            register(idempotencyKey, notification.get().getId());
+            bloomFilter.add(idempotencyKey);
         }
-
         return notification;
     }
 
+    /**
+     * Consulta o banco sem passar pelo Bloom filter (ex.: após violação do unique em idempotency_key).
+     */
+    public Optional<Notification> findInDatabaseUnfiltered(String idempotencyKey) {
+        return notificationRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    /**
+     * Substitui a reserva pelo id da notificação e guarda o snapshot da resposta.
+     */
+    public void complete(String idempotencyKey, NotificationResponse response) {
+        try {
+            idempotencyRepository.complete(idempotencyKey, response.getNotificationId(),
+                    objectMapper.writeValueAsString(response), ttl);
+            bloomFilter.add(idempotencyKey);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize idempotency snapshot, registering id only: key={}, error={}", idempotencyKey, e.getMessage());
+            register(idempotencyKey, response.getNotificationId());
+        }
+    }
+
+    /**
+     * Libera a reserva quando a requisição falha, para que o cliente possa tentar de novo com a mesma key.
+     */
+    public void release(String idempotencyKey, Reservation reservation) {
+        try {
+            idempotencyRepository.release(idempotencyKey, reservation.pendingValue());
+        } catch (Exception e) {
+            // O marcador expira sozinho em idempotency.pending-ttl
+            log.warn("Failed to release idempotency reservation: key={}, error={}", idempotencyKey, e.getMessage());
+        }
+    }
+
+    private NotificationResponse readSnapshot(String snapshot) {
+        if (snapshot == null || snapshot.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(snapshot, NotificationResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Invalid idempotency snapshot ignored: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Versão em lote de {@link #findByIdempotencyKey}: um MGET no Redis e uma única query
+     * para as keys que não estavam no cache. Retorna apenas os ids, sem carregar as entidades.
+     */
+    public Map<String, String> findNotificationIds(List<String> idempotencyKeys) {
+        Map<String, String> found = new HashMap<>(idempotencyRepository.findNotificationIds(idempotencyKeys));
+
+        List<String> misses = idempotencyKeys.stream()
+                .filter(key -> !found.containsKey(key))
+                .toList();
+
+        List<String> candidates = filterByBloom(misses);
+
+        if (!candidates.isEmpty()) {
+            Map<String, String> fromDatabase = new HashMap<>();
+            notificationRepository.findIdsByIdempotencyKeyIn(candidates)
+                    .forEach(view -> fromDatabase.put(view.getIdempotencyKey(), view.getId()));
+
+            if (bloomFilter.isEnabled()) {
+                metricsService.incrementIdempotencyBloom("positive", fromDatabase.size());
+                metricsService.incrementIdempotencyBloom("false_positive", candidates.size() - fromDatabase.size());
+            }
+
+            if (!fromDatabase.isEmpty()) {
+                log.debug("Found {} idempotency keys in database", fromDatabase.size());
+                registerAll(fromDatabase);
+                found.putAll(fromDatabase);
+            }
+        }
+
+        return found;
+    }
+
     public void register(String idempotencyKey, String notificationId) {
         log.debug("Registering idempotency: {} -> {}", idempotencyKey, notificationId);
         idempotencyRepository.register(idempotencyKey, notificationId, ttl);
+        bloomFilter.add(idempotencyKey);
+    }
+
+    public void registerAll(Map<String, String> notificationIdsByKey) {
+        idempotencyRepository.registerAll(notificationIdsByKey, ttl);
+        bloomFilter.addAll(notificationIdsByKey.keySet());
     }
-}
 
+    private List<String> filterByBloom(List<String> idempotencyKeys) {
+        List<Boolean> mightContain = bloomFilter.mightContainAll(idempotencyKeys);
+        List<String> candidates = new ArrayList<>(idempotencyKeys.size());
+        for (int i = 0; i < idempotencyKeys.size(); i++) {
+            if (mightContain.get(i)) {
+                candidates.add(idempotencyKeys.get(i));
+            }
+        }
+
+        metricsService.incrementIdempotencyBloom("negative", idempotencyKeys.size() - candidates.size());
+        return candidates;
+    }
+
+    public enum ReservationStatus {
+        /** Key reservada para esta requisição */
+        RESERVED,
+        /** Outra requisição com a mesma key ainda está processando */
+        IN_PROGRESS,
+        /** Já existe notificação para a key */
+        COMPLETED
+    }
+
+    /**
+     * @param pendingValue marcador gravado pela reserva (só em RESERVED)
+     * @param snapshot resposta original; null para registros antigos, que só guardam o id
+     */
+    public record Reservation(ReservationStatus status, String pendingValue, String notificationId,
+                              NotificationResponse snapshot) {
+
+        static Reservation reserved(String pendingValue) {
+            return new Reservation(ReservationStatus.RESERVED, pendingValue, null, null);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.notification.core.service;
+
+import com.notification.core.dto.NotificationEvent;
+import com.notification.core.model.Channel;
+import com.notification.core.model.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Envia eventos de notificação ao Kafka. O envio é assíncrono: quem publica em lote
+ * dispara todos os sends e aguarda os futures (o linger do producer agrupa os envios).
+ * <p>
+ * notification.created é roteado por canal conforme kafka.topics.routing-mode:
+ * shared (só o tópico único), dual (os dois, durante a migração) ou channel (só notification.created.{canal}).
+ * Com kafka.topics.priority-lanes=true, o tópico do canal ganha a faixa de prioridade:
+ * notification.created.{canal}.{high|normal|low}, só para os canais em kafka.topics.priority-lane-channels
+ * (os que têm listener por faixa); os demais continuam em notification.created.{canal}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationEventPublisher {
+
+    /**
+     * Presente na cópia do tópico compartilhado em modo dual: providers e audit que já consomem
+     * o tópico do canal ignoram essa cópia.
+     */
+    public static final String CHANNEL_TOPIC_HEADER = "channelTopic";
+
+    private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+
+    @Value("${kafka.topics.notification-created}")
+    private String notificationCreatedTopic;
+
+    @Value("${kafka.topics.notification-failed-dlq}")
+    private String notificationDlqTopic;
+
+    @Value("${kafka.topics.routing-mode:shared}")
+    private RoutingMode routingMode;
+
+    @Value("${kafka.topics.priority-lanes:false}")
+    private boolean priorityLanes;
+
+    @Value("${kafka.topics.priority-lane-channels:EMAIL,SMS,PUSH}")
+    private Set<Channel> priorityLaneChannels;
+
+    public CompletableFuture<?> publish(NotificationEvent event, OutboxEventType eventType) {
+        if (eventType == OutboxEventType.NOTIFICATION_DLQ) {
+            return send(event, notificationDlqTopic, null);
+        }
+
+        String channelTopic = notificationCreatedTopic + "." + event.getChannel().name().toLowerCase();
+        if (priorityLanes && priorityLaneChannels.contains(event.getChannel())) {
+            channelTopic += "." + event.getPriority().lane();
+        }
+
+        return switch (routingMode) {
+            case SHARED -> send(event, notificationCreatedTopic, null);
+            case CHANNEL -> send(event, channelTopic, null);
+            case DUAL -> CompletableFuture.allOf(
+                    send(event, channelTopic, null),
+                    send(event, notificationCreatedTopic, channelTopic));
+        };
+    }
+
+    private CompletableFuture<?> send(NotificationEvent event, String topic, String channelTopic) {
+        try {
+            MessageBuilder<NotificationEvent> builder = MessageBuilder
+                    .withPayload(event)
+                    .setHeader(KafkaHeaders.TOPIC, topic)
+                    .setHeader(KafkaHeaders.KEY, event.getNotificationId())
+                    .setHeader("channel", event.getChannel().name())
+                    .setHeader("priority", event.getPriority().name())
+                    .setHeader("clientId", event.getClientId());
+
+            if (channelTopic != null) {
+                builder.setHeader(CHANNEL_TOPIC_HEADER, channelTopic);
+            }
+
+            Message<NotificationEvent> message = builder.build();
+
+            return kafkaTemplate.send(message)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to publish notification event: id={}, topic={}, error={}",
+                                    event.getNotificationId(), topic, ex.getMessage(), ex);
+                        } else {
+                            log.debug("Notification event published successfully: id={}, topic={}, partition={}",
+                                    event.getNotificationId(),
+                                    result.getRecordMetadata().topic(),
+                                    result.getRecordMetadata().partition());
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("Error publishing notification event: id={}, error={}", event.getNotificationId(), e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public enum RoutingMode {
+        SHARED,
+        DUAL,
+        CHANNEL
+    }
+}
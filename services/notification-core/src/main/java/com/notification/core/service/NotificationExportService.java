@@ -0,0 +1,74 @@
+package com.notification.core.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.notification.core.dto.NotificationExportFilter;
+import com.notification.core.dto.NotificationListItem;
+import com.notification.core.model.Notification;
+import com.notification.core.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export NDJSON (uma notificação por linha) lido por cursor no servidor e escrito direto na saída.
+ * Cada entidade é desanexada depois de escrita e a saída é descarregada a cada flush-every linhas,
+ * então a memória usada não depende do tamanho do export.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationExportService {
+
+    private final NotificationRepository notificationRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notification.export.flush-every:500}")
+    private int flushEvery;
+
+    /**
+     * @return número de notificações exportadas
+     */
+    @Transactional(readOnly = true)
+    public long export(NotificationExportFilter filter, OutputStream out) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        long exported = 0;
+
+        try (Stream<Notification> notifications = notificationRepository.streamForExport(
+                filter.clientId(), filter.channel(), filter.status(), filter.from(), filter.to());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            ObjectWriter writer = objectMapper.writerFor(NotificationListItem.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            Iterator<Notification> iterator = notifications.iterator();
+
+            while (iterator.hasNext()) {
+                Notification notification = iterator.next();
+                writer.writeValue(generator, NotificationListItem.of(notification));
+                generator.writeRaw('\n');
+                entityManager.detach(notification);
+
+                if (++exported % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        log.info("Notification export finished: clientId={}, exported={}, durationMs={}",
+                filter.clientId(), exported, System.currentTimeMillis() - startedAt);
+        return exported;
+    }
+}
@@ -1,22 +1,28 @@
 package com.notification.core.service;
 
-import com.notification.core.dto.NotificationEvent;
 import com.notification.core.dto.NotificationRequest;
 import com.notification.core.dto.NotificationResponse;
 import com.notification.core.dto.RenderTemplateResponse;
+import com.notification.core.exception.DuplicateNotificationException;
 import com.notification.core.exception.QuotaExceededException;
+import com.notification.core.metrics.SendPhase;
+import com.notification.core.metrics.SendPhaseTracker;
+import com.notification.core.metrics.MetricsService;
 import com.notification.core.model.Notification;
+import com.notification.core.service.IdempotencyService.Reservation;
+import com.notification.core.service.IdempotencyService.ReservationStatus;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Slf4j
 @Service
@@ -25,89 +31,200 @@ public class NotificationOrchestrator {
 
     private final IdempotencyService idempotencyService;
     private final QuotaValidationService quotaValidationService;
+    private final QuotaLeaseManager quotaLeaseManager;
     private final TemplateService templateService;
     private final NotificationService notificationService;
-    private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+    private final SendPhaseTracker phaseTracker;
+    private final MetricsService metricsService;
 
-    @Value("${kafka.topics.notification-created}")
-    private String notificactionCreatedTopic;
+    private final ExecutorService remoteCallExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    @Value("${kafka.topics.notification-failed-dlq}")
-    private String notificactionDlqTopic;
+    @Value("${notification.orchestration.mode:sequential}")
+    private OrchestrationMode mode;
 
-    @Transactional
+    /**
+     * Pipeline em fases: validate, reserve, render, persist e publish.
+     * Só a fase de persistência abre transação (notificação + outbox), então nenhuma conexão do pool
+     * fica presa esperando as chamadas HTTP de quota e template (nem seus backoffs de retry).
+     * Com notification.orchestration.mode=concurrent, reserve e render rodam em paralelo.
+     */
     public NotificationResponse sendNotification(NotificationRequest request) {
+        long start = System.nanoTime();
+        boolean success = false;
+
+        try {
+            NotificationResponse response = process(request);
+            success = true;
+            return response;
+        } finally {
+            metricsService.recordOrchestration(mode.name(), success, System.nanoTime() - start);
+        }
+    }
+
+    private NotificationResponse process(NotificationRequest request) {
         log.info("Processing notification request: idempotencyKey={}, clientId={}, channel={}",
                 request.getIdempotencyKey(), request.getClientId(), request.getChannel());
 
-        Optional<Notification> existing = idempotencyService.findByIdempotencyKey(request.getIdempotencyKey());
+        String idempotencyKey = request.getIdempotencyKey();
+        Reservation reservation = phaseTracker.track(SendPhase.VALIDATE, () -> idempotencyService.reserve(idempotencyKey));
+
+        if (reservation.status() == ReservationStatus.IN_PROGRESS) {
+            log.warn("Concurrent duplicate rejected: idempotencyKey={}", idempotencyKey);
+            throw new DuplicateNotificationException(
+                    "Notification with idempotency key " + idempotencyKey + " is already being processed");
+        }
+
+        if (reservation.status() == ReservationStatus.COMPLETED) {
+            log.warn("Duplicate notification detected: idempotencyKey={}, existingId={}", idempotencyKey, reservation.notificationId());
+            return reservation.snapshot() != null
+                    ? reservation.snapshot()
+                    : NotificationResponse.of(notificationService.findById(reservation.notificationId()));
+        }
+
+        try {
+            return processReserved(request);
+        } catch (RuntimeException e) {
+            idempotencyService.release(idempotencyKey, reservation);
+            throw e;
+        }
+    }
+
+    private NotificationResponse processReserved(NotificationRequest request) {
+        // A key pode ter saído do Redis (TTL) e ainda existir no banco
+        Optional<Notification> existing = phaseTracker.track(SendPhase.VALIDATE,
+                () -> idempotencyService.findInDatabase(request.getIdempotencyKey()));
 
         if (existing.isPresent()) {
             log.warn("Duplicate notification detected: idempotencyKey={}, existingId={}",
                     request.getIdempotencyKey(), existing.get().getId());
-            return NotificationResponse.of(existing.get());
+            NotificationResponse response = NotificationResponse.of(existing.get());
+            completeIdempotency(request.getIdempotencyKey(), response);
+            return response;
         }
 
-        boolean hasQuota = quotaValidationService.validateAndConsumeQuota(
-                request.getClientId(),
-                request.getChannel(),
-                1L,
-                request.getIdempotencyKey()
-        );
+        RenderTemplateResponse template = mode == OrchestrationMode.CONCURRENT
+                ? reserveAndRenderConcurrently(request)
+                : reserveAndRenderSequentially(request);
 
-        if (!hasQuota) {
-            log.error("Quota exceeded: clientId={}, channel={}", request.getClientId(), request.getChannel());
-            throw new QuotaExceededException(
-                    String.format("Quota exceeded for client %s on channel %s", request.getClientId(), request.getChannel())
-            );
+        Notification notification;
+        try {
+            notification = phaseTracker.track(SendPhase.PERSIST,
+                    () -> notificationService.createNotification(request, template));
+        } catch (DataIntegrityViolationException e) {
+            return resolveUniqueViolation(request, e);
         }
+        NotificationResponse response = NotificationResponse.of(notification);
 
-        RenderTemplateResponse template = templateService.renderTemplate(request);
-        Notification notification = notificationService.createNotification(request, template);
+        // O evento notification.created já está no outbox; o OutboxRelay publica após o commit
+        phaseTracker.track(SendPhase.PUBLISH, () -> completeIdempotency(request.getIdempotencyKey(), response));
 
-        idempotencyService.register(request.getIdempotencyKey(), notification.getId());
+        log.info("Notification successfully processed: id={}, status={}", notification.getId(), notification.getStatus());
 
-        publishNotificationEvent(notification, notificactionCreatedTopic);
+        return response;
+    }
 
-        log.info("Notification successfully processed: id={}, status={}", notification.getId(), notification.getStatus());
+    /**
+     * A key existia no banco mas não no Redis nem no Bloom filter (mais antiga que as janelas retidas):
+     * o unique em idempotency_key barra o insert, a quota reservada é devolvida e a notificação original é retornada.
+     */
+    private NotificationResponse resolveUniqueViolation(NotificationRequest request, DataIntegrityViolationException e) {
+        Optional<Notification> existing = idempotencyService.findInDatabaseUnfiltered(request.getIdempotencyKey());
+        if (existing.isEmpty()) {
+            throw e;
+        }
+
+        log.warn("Duplicate notification detected on insert: idempotencyKey={}, existingId={}",
+                request.getIdempotencyKey(), existing.get().getId());
+        releaseQuota(request);
 
-        return NotificationResponse.of(notification);
+        NotificationResponse response = NotificationResponse.of(existing.get());
+        completeIdempotency(request.getIdempotencyKey(), response);
+        return response;
     }
 
-    public void publishNotificationEvent(Notification notification, String notificactionCreatedTopic) {
+    private void completeIdempotency(String idempotencyKey, NotificationResponse response) {
         try {
-            NotificationEvent event = NotificationEvent.of(notification);
-            Message<NotificationEvent> message = MessageBuilder
-                    .withPayload(event)
-                    .setHeader(KafkaHeaders.TOPIC, notificactionCreatedTopic)
-                    .setHeader(KafkaHeaders.KEY, notification.getId())
-                    .setHeader("channel", notification.getChannel().name())
-                    .setHeader("priority", notification.getPriority().name())
-                    .setHeader("clientId", notification.getClientId())
-                    .build();
-
-            kafkaTemplate.send(message)
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            log.error("Failed to publish notification event: id={}, error={}", notification.getId(), ex.getMessage(), ex);
-                        } else {
-                            log.info("Notification event published successfully: id={}, topic={}, partition={}",
-                                    notification.getId(),
-                                    result.getRecordMetadata().topic(),
-                                    result.getRecordMetadata().partition());
-                        }
-                    });
+            idempotencyService.complete(idempotencyKey, response);
         } catch (Exception e) {
-            log.error("Error publishing notification event: id={}, error={}", notification.getId(), e.getMessage(), e);
+            // A notificação já foi gravada; o marcador pending expira e o banco (unique em idempotency_key) responde depois
+            log.warn("Failed to complete idempotency key in cache: key={}, error={}", idempotencyKey, e.getMessage());
+        }
+    }
+
+    private RenderTemplateResponse reserveAndRenderSequentially(NotificationRequest request) {
+        phaseTracker.track(SendPhase.RESERVE, () -> reserveQuota(request));
+
+        return phaseTracker.track(SendPhase.RENDER, () -> templateService.renderTemplate(request));
+    }
+
+    /**
+     * Quota e template são chamadas independentes: rodam em virtual threads e a latência passa a ser
+     * a maior das duas. Erro de quota tem precedência (mesma resposta do modo sequencial); se só o
+     * render falhar, a unidade já reservada é devolvida via /quotas/release.
+     */
+    private RenderTemplateResponse reserveAndRenderConcurrently(NotificationRequest request) {
+        CompletableFuture<Void> quota = CompletableFuture.runAsync(
+                () -> phaseTracker.track(SendPhase.RESERVE, () -> reserveQuota(request)), remoteCallExecutor);
+        CompletableFuture<RenderTemplateResponse> template = CompletableFuture.supplyAsync(
+                () -> phaseTracker.track(SendPhase.RENDER, () -> templateService.renderTemplate(request)), remoteCallExecutor);
+
+        try {
+            quota.join();
+        } catch (CompletionException e) {
+            template.cancel(true);
+            throw unwrap(e);
+        }
+
+        try {
+            return template.join();
+        } catch (CompletionException e) {
+            log.warn("Template render failed after quota reservation, releasing quota: idempotencyKey={}",
+                    request.getIdempotencyKey());
+            releaseQuota(request);
+            throw unwrap(e);
         }
     }
 
-    public void publishCreatedNotificationEvent(Notification notification) {
-        publishNotificationEvent(notification, notificactionCreatedTopic);
+    private void releaseQuota(NotificationRequest request) {
+        if (quotaLeaseManager.isEnabled()) {
+            quotaLeaseManager.release(request.getClientId(), request.getChannel(), 1L, request.getIdempotencyKey());
+        } else {
+            quotaValidationService.releaseQuota(request.getClientId(), request.getChannel(), 1L, request.getIdempotencyKey());
+        }
     }
 
-    public void publishDlqNotificationEvent(Notification notification) {
-        publishNotificationEvent(notification, notificactionDlqTopic);
+    private RuntimeException unwrap(CompletionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return e;
     }
-}
 
+    @PreDestroy
+    void shutdown() {
+        remoteCallExecutor.close();
+    }
+
+    private void reserveQuota(NotificationRequest request) {
+        boolean hasQuota = quotaLeaseManager.isEnabled()
+                ? quotaLeaseManager.tryAcquire(request.getClientId(), request.getChannel())
+                : quotaValidationService.validateAndConsumeQuota(
+                        request.getClientId(),
+                        request.getChannel(),
+                        1L,
+                        request.getIdempotencyKey()
+                );
+
+        if (!hasQuota) {
+            log.error("Quota exceeded: clientId={}, channel={}", request.getClientId(), request.getChannel());
+            throw new QuotaExceededException(
+                    String.format("Quota exceeded for client %s on channel %s", request.getClientId(), request.getChannel())
+            );
+        }
+    }
+
+    public enum OrchestrationMode {
+        SEQUENTIAL,
+        CONCURRENT
+    }
+}
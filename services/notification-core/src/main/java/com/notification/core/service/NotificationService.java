@@ -1,13 +1,22 @@
 package com.notification.core.service;
 
+import com.notification.core.dto.NotificationCursor;
+import com.notification.core.dto.NotificationCursorPage;
+import com.notification.core.dto.NotificationListItem;
 import com.notification.core.dto.NotificationRequest;
 import com.notification.core.dto.NotificationSentEvent;
 import com.notification.core.dto.RenderTemplateResponse;
 import com.notification.core.exception.NotificationNotFoundException;
 import com.notification.core.metrics.MetricsService;
+import com.notification.core.model.Channel;
 import com.notification.core.model.Notification;
 import com.notification.core.model.NotificationStatus;
+import com.notification.core.model.OutboxEventType;
+import com.notification.core.repository.NotificationBatchRepository;
+import com.notification.core.repository.NotificationBatchRepository.SentUpdate;
+import com.notification.core.repository.NotificationListingRepository;
 import com.notification.core.repository.NotificationRepository;
+import com.notification.core.retry.RetryBackoffPolicy;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +26,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing notifications
@@ -28,7 +47,14 @@ import java.time.LocalDateTime;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationBatchRepository notificationBatchRepository;
+    private final OutboxService outboxService;
     private final MetricsService metricsService;
+    private final RetryBackoffPolicy retryBackoffPolicy;
+    private final NotificationStatusCounter statusCounter;
+    private final NotificationListingRepository listingRepository;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     /**
      * Create a new notification
@@ -38,7 +64,48 @@ public class NotificationService {
         log.info("Creating notification: clientId={}, channel={}, idempotencyKey={}",
                 request.getClientId(), request.getChannel(), request.getIdempotencyKey());
 
-        Notification notification = Notification.builder()
+        Notification notification = buildNotification(request, template);
+
+        notification = notificationRepository.save(notification);
+        outboxService.record(notification, OutboxEventType.NOTIFICATION_CREATED);
+        log.info("Notification created: id={}", notification.getId());
+
+        statusCounter.created(1);
+        metricsService.incrementPending(notification.getChannel());
+        return notification;
+    }
+
+    /**
+     * Create notifications in bulk with a single JDBC batch.
+     * Returns only the rows actually inserted; items whose idempotency key already exists are skipped.
+     */
+    @Transactional
+    public List<Notification> createNotifications(List<NotificationRequest> requests, List<RenderTemplateResponse> templates) {
+        log.info("Creating notification batch: size={}", requests.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Notification notification = buildNotification(requests.get(i), templates.get(i));
+            notification.setId(UUID.randomUUID().toString());
+            notification.setCreatedAt(now);
+            notification.setUpdatedAt(now);
+            notifications.add(notification);
+        }
+
+        List<Notification> inserted = notificationBatchRepository.insertAll(notifications);
+        outboxService.recordAll(inserted, OutboxEventType.NOTIFICATION_CREATED);
+        log.info("Notification batch created: requested={}, inserted={}", requests.size(), inserted.size());
+
+        statusCounter.created(inserted.size());
+        inserted.stream()
+                .collect(Collectors.groupingBy(Notification::getChannel, Collectors.counting()))
+                .forEach(metricsService::incrementPending);
+        return inserted;
+    }
+
+    private Notification buildNotification(NotificationRequest request, RenderTemplateResponse template) {
+        return Notification.builder()
                 .clientId(request.getClientId())
                 .idempotencyKey(request.getIdempotencyKey())
                 .channel(request.getChannel())
@@ -53,12 +120,6 @@ public class NotificationService {
                 .retryCount(0)
                 .maxRetries(request.getMaxRetries())
                 .build();
-
-        notification = notificationRepository.save(notification);
-        log.info("Notification created: id={}", notification.getId());
-
-        metricsService.incrementPending(notification.getChannel());
-        return notification;
     }
 
     /**
@@ -69,6 +130,15 @@ public class NotificationService {
                 .orElseThrow(() -> new NotificationNotFoundException("Notification not found: " + id));
     }
 
+    /**
+     * Locked read for status transitions: the status read here is the one the update replaces, so the
+     * status counter gets the right from-status even with concurrent events for the same notification
+     */
+    private Notification findByIdForUpdate(String id) {
+        return notificationRepository.findByIdWithLock(id)
+                .orElseThrow(() -> new NotificationNotFoundException("Notification not found: " + id));
+    }
+
     /**
      * Find notifications by client ID
      */
@@ -76,6 +146,27 @@ public class NotificationService {
         return notificationRepository.findByClientId(clientId, pageable);
     }
 
+    /**
+     * List a client's notifications newest first, seeking past the cursor instead of using an offset.
+     * Fetches one extra row to know whether there is a next page; no total count is computed.
+     */
+    public NotificationCursorPage findByClientId(String clientId, String cursor, int size, boolean includeContent) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        NotificationCursor after = cursor != null && !cursor.isBlank() ? NotificationCursor.decode(cursor) : null;
+
+        List<NotificationListItem> items = listingRepository.findByClientId(clientId, after, limit + 1, includeContent);
+        boolean hasMore = items.size() > limit;
+        if (hasMore) {
+            items = items.subList(0, limit);
+        }
+
+        return NotificationCursorPage.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? NotificationCursor.after(items.get(items.size() - 1)).encode() : null)
+                .build();
+    }
+
     /**
      * Update notification status to SENT
      */
@@ -83,7 +174,8 @@ public class NotificationService {
     public void updateStatusToSent(NotificationSentEvent event) {
         log.info("Updating notification to SENT: id={}, providerId={}", event.getNotificationId(), event.getProviderId());
 
-        Notification notification = findById(event.getNotificationId());
+        Notification notification = findByIdForUpdate(event.getNotificationId());
+        statusCounter.transition(notification.getStatus(), NotificationStatus.SENT);
         notification.setStatus(NotificationStatus.SENT);
         notification.setProviderId(event.getProviderId());
         notification.setProviderMessageId(event.getProviderMessageId());
@@ -94,15 +186,59 @@ public class NotificationService {
         metricsService.incrementSent(notification, event);
     }
 
+    /**
+     * Update notifications to SENT in bulk, without loading the entities.
+     * Repeated ids keep the last event; metrics are recorded per channel and provider.
+     * All chunks commit together, so a failure leaves nothing applied for the per-event fallback to count twice.
+     * @return number of notifications updated
+     */
+    @Transactional
+    public int updateStatusToSent(List<NotificationSentEvent> events) {
+        Map<String, NotificationSentEvent> byId = new LinkedHashMap<>();
+        events.forEach(event -> byId.put(event.getNotificationId(), event));
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        List<SentUpdate> updated = notificationBatchRepository.markAllSent(new ArrayList<>(byId.values()), sentAt);
+
+        if (updated.size() < byId.size()) {
+            log.warn("Sent events for unknown notifications ignored: count={}", byId.size() - updated.size());
+        }
+
+        updated.stream()
+                .collect(Collectors.groupingBy(SentUpdate::previousStatus, Collectors.counting()))
+                .forEach((previous, count) -> statusCounter.transition(previous, NotificationStatus.SENT, count));
+
+        Map<SentGroup, List<SentUpdate>> groups = new HashMap<>();
+        for (SentUpdate update : updated) {
+            String providerId = byId.get(update.id()).getProviderId();
+            groups.computeIfAbsent(new SentGroup(update.channel(), providerId), key -> new ArrayList<>()).add(update);
+        }
+
+        groups.forEach((group, rows) -> {
+            BigDecimal cost = rows.stream()
+                    .map(row -> byId.get(row.id()).getCost())
+                    .filter(Objects::nonNull)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            metricsService.incrementSent(group.channel(), group.providerId(), rows.size(), cost);
+            rows.forEach(row -> metricsService.recordLatency(group.channel(), group.providerId(),
+                    Duration.between(row.createdAt(), sentAt)));
+        });
+
+        log.info("Notifications updated to SENT in batch: events={}, updated={}", events.size(), updated.size());
+        return updated.size();
+    }
+
     /**
      * Handle notification failure
-     * Returns the updated notification so caller can decide to republish if needed
+     * Schedules the retry (next_retry_at, with per-channel backoff) or records the DLQ event in the outbox
      */
     @Transactional
     public Notification handleFailure(String notificationId, String failureReason) {
         log.warn("Handling notification failure: id={}, reason={}", notificationId, failureReason);
 
-        Notification notification = findById(notificationId);
+        Notification notification = findByIdForUpdate(notificationId);
+        NotificationStatus previousStatus = notification.getStatus();
         notification.setFailureReason(failureReason);
         notification.incrementRetryCount();
 
@@ -113,22 +249,34 @@ public class NotificationService {
 
             metricsService.incrementFailed(notification.getChannel());
         } else {
+            Duration delay = retryBackoffPolicy.delay(notification.getChannel(), notification.getRetryCount());
             notification.setStatus(NotificationStatus.RETRYING);
-            log.info("Notification will be retried: id={}, retryCount={}", notificationId, notification.getRetryCount());
+            notification.setNextRetryAt(LocalDateTime.now().plus(delay));
+            log.info("Notification will be retried: id={}, retryCount={}, delay={}", notificationId, notification.getRetryCount(), delay);
 
             metricsService.incrementRetry(notification.getChannel(), String.valueOf(notification.getRetryCount()));
         }
 
-        return notificationRepository.save(notification);
+        notification = notificationRepository.save(notification);
+        statusCounter.transition(previousStatus, notification.getStatus());
+        // O reenvio é publicado pelo RetryScheduler quando next_retry_at vencer
+        if (notification.getStatus() == NotificationStatus.FAILED) {
+            outboxService.record(notification, OutboxEventType.NOTIFICATION_DLQ);
+        }
+        return notification;
     }
 
+    /**
+     * Stats read from notification_status_counts (plus this instance's unflushed deltas), not from count(*)
+     */
     public NotificationStats getStats() {
+        Map<NotificationStatus, Long> counts = statusCounter.counts();
         return NotificationStats.builder()
-                .pending(notificationRepository.countByStatus(NotificationStatus.PENDING))
-                .processing(notificationRepository.countByStatus(NotificationStatus.PROCESSING))
-                .sent(notificationRepository.countByStatus(NotificationStatus.SENT))
-                .failed(notificationRepository.countByStatus(NotificationStatus.FAILED))
-                .retrying(notificationRepository.countByStatus(NotificationStatus.RETRYING))
+                .pending(counts.get(NotificationStatus.PENDING))
+                .processing(counts.get(NotificationStatus.PROCESSING))
+                .sent(counts.get(NotificationStatus.SENT))
+                .failed(counts.get(NotificationStatus.FAILED))
+                .retrying(counts.get(NotificationStatus.RETRYING))
                 .build();
     }
 
@@ -145,5 +293,7 @@ public class NotificationService {
             return pending + processing + sent + failed + retrying;
         }
     }
-}
 
+    private record SentGroup(Channel channel, String providerId) {
+    }
+}
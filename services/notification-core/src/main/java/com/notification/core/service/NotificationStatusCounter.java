@@ -0,0 +1,132 @@
+package com.notification.core.service;
+
+import com.notification.core.model.NotificationStatus;
+import com.notification.core.repository.NotificationStatusCountRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem de notificações por status sem count(*) na tabela notifications.
+ * Cada transição de status vira um delta num LongAdder (striped, sem contenção entre threads), aplicado só
+ * após o commit da transação. O checkpoint soma os deltas em notification_status_counts; as leituras
+ * combinam a tabela com os deltas locais ainda não gravados. O recálculo periódico com count(*) é opcional
+ * (reseed-enabled, desligado por padrão): varre toda a tabela notifications e conta de novo os deltas que outras
+ * instâncias ainda não gravaram no momento do recálculo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationStatusCounter {
+
+    private final NotificationStatusCountRepository statusCountRepository;
+
+    private final Map<NotificationStatus, LongAdder> deltas = newDeltas();
+
+    @Value("${notification.status-counts.reseed-enabled:false}")
+    private boolean reseedEnabled;
+
+    public void created(long count) {
+        add(NotificationStatus.PENDING, count);
+    }
+
+    public void transition(NotificationStatus from, NotificationStatus to) {
+        transition(from, to, 1);
+    }
+
+    public void transition(NotificationStatus from, NotificationStatus to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        add(from, -count);
+        add(to, count);
+    }
+
+    public Map<NotificationStatus, Long> counts() {
+        Map<NotificationStatus, Long> counts = new EnumMap<>(NotificationStatus.class);
+        Map<NotificationStatus, Long> stored = statusCountRepository.findAll();
+
+        for (NotificationStatus status : NotificationStatus.values()) {
+            counts.put(status, stored.getOrDefault(status, 0L) + deltas.get(status).sum());
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.status-counts.checkpoint-interval-ms:1000}")
+    public void checkpoint() {
+        Map<NotificationStatus, Long> pending = new EnumMap<>(NotificationStatus.class);
+        deltas.forEach((status, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                pending.put(status, delta);
+            }
+        });
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            statusCountRepository.addAll(pending);
+            log.debug("Status counts checkpointed: {}", pending);
+        } catch (Exception e) {
+            // Devolve os deltas para o próximo checkpoint
+            pending.forEach((status, delta) -> deltas.get(status).add(delta));
+            log.error("Status count checkpoint failed: deltas={}, error={}", pending, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${notification.status-counts.reseed-interval-ms:3600000}",
+            fixedDelayString = "${notification.status-counts.reseed-interval-ms:3600000}")
+    public void reseed() {
+        if (!reseedEnabled) {
+            return;
+        }
+
+        // Grava os deltas locais antes, para que não sejam somados de novo sobre a contagem recalculada
+        checkpoint();
+
+        try {
+            if (statusCountRepository.reseed()) {
+                log.info("Status counts reseeded from notifications: {}", statusCountRepository.findAll());
+            }
+        } catch (Exception e) {
+            log.error("Status count reseed failed: error={}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        checkpoint();
+    }
+
+    private void add(NotificationStatus status, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deltas.get(status).add(delta);
+                }
+            });
+        } else {
+            deltas.get(status).add(delta);
+        }
+    }
+
+    private static Map<NotificationStatus, LongAdder> newDeltas() {
+        Map<NotificationStatus, LongAdder> map = new EnumMap<>(NotificationStatus.class);
+        for (NotificationStatus status : NotificationStatus.values()) {
+            map.put(status, new LongAdder());
+        }
+        return map;
+    }
+}
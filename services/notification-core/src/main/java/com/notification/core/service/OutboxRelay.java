@@ -0,0 +1,163 @@
+package com.notification.core.service;
+
+import com.notification.core.metrics.MetricsService;
+import com.notification.core.model.OutboxEvent;
+import com.notification.core.repository.OutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+/**
+ * Drena o notification_outbox para o Kafka.
+ *
+ * <p>A tabela é dividida em shards (por notification_id). Cada shard é drenado dentro de uma
+ * transação que segura um advisory lock do Postgres, então várias instâncias do core podem rodar
+ * o relay em paralelo sem publicar o mesmo evento duas vezes. Os eventos de um lote são enviados
+ * de forma assíncrona (o linger do producer agrupa os sends) e as confirmações são aguardadas até um
+ * único prazo por lote (send-timeout-ms), que limita quanto tempo a transação e sua conexão ficam abertas;
+ * só os confirmados são apagados. Se a instância cair entre o envio e o commit, o lote é reenviado
+ * (at-least-once). Eventos que falham max-attempts vezes são estacionados (parked_at) e saem do polling.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+    private final OutboxRepository outboxRepository;
+    private final NotificationEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricsService metricsService;
+
+    @Value("${notification.outbox.relay.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${notification.outbox.relay.threads:4}")
+    private int threads;
+
+    @Value("${notification.outbox.relay.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${notification.outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("outbox-relay-" + thread.threadId());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.relay.poll-interval-ms:100}")
+    public void relay() {
+        List<Callable<Integer>> tasks = IntStream.range(0, outboxService.getShards())
+                .<Callable<Integer>>mapToObj(shard -> () -> drainShard(shard))
+                .toList();
+
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int drainShard(int shard) {
+        int total = 0;
+        int published;
+
+        try {
+            do {
+                published = Objects.requireNonNullElse(transactionTemplate.execute(status -> publishBatch(shard)), 0);
+                total += published;
+            } while (published == batchSize);
+        } catch (Exception e) {
+            log.error("Outbox relay failed: shard={}, error={}", shard, e.getMessage(), e);
+        }
+
+        if (total > 0) {
+            log.info("Outbox shard drained: shard={}, published={}", shard, total);
+        }
+        return total;
+    }
+
+    /**
+     * Publica um lote do shard. Retorna quantos eventos foram confirmados; qualquer falha
+     * interrompe a drenagem do shard até o próximo ciclo.
+     */
+    private int publishBatch(int shard) {
+        if (!outboxRepository.tryLockShard(shard)) {
+            return 0;
+        }
+
+        List<OutboxEvent> events = outboxRepository.findBatch(shard, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                futures.add(publisher.publish(outboxService.readPayload(event), event.getEventType()));
+            } catch (Exception e) {
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> published = new ArrayList<>(events.size());
+        List<Long> failed = new ArrayList<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(event.getId());
+                metricsService.recordOutboxLag(event.getEventType(), Duration.between(event.getCreatedAt(), now));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(event.getId());
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event not published: id={}, notificationId={}, attempts={}, error={}",
+                        event.getId(), event.getNotificationId(), event.getAttempts() + 1, e.getMessage());
+                failed.add(event.getId());
+            }
+        }
+
+        outboxRepository.deleteAll(published);
+        List<Long> parked = outboxRepository.incrementAttempts(failed, maxAttempts);
+
+        if (!parked.isEmpty()) {
+            log.error("Outbox events parked after {} attempts: ids={}", maxAttempts, parked);
+        }
+
+        metricsService.incrementOutboxPublished(published.size());
+        metricsService.incrementOutboxFailed(failed.size());
+        metricsService.incrementOutboxParked(parked.size());
+
+        return failed.isEmpty() ? published.size() : 0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.notification.core.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.core.dto.NotificationEvent;
+import com.notification.core.model.Notification;
+import com.notification.core.model.OutboxEvent;
+import com.notification.core.model.OutboxEventType;
+import com.notification.core.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Grava eventos no outbox dentro da transação de quem altera a notificação.
+ * A publicação no Kafka fica a cargo do {@link OutboxRelay}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notification.outbox.shards:16}")
+    private int shards;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Notification notification, OutboxEventType eventType) {
+        recordAll(List.of(notification), eventType);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<Notification> notifications, OutboxEventType eventType) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<OutboxEvent> events = notifications.stream()
+                .map(notification -> OutboxEvent.builder()
+                        .notificationId(notification.getId())
+                        .eventType(eventType)
+                        .payload(writePayload(NotificationEvent.of(notification)))
+                        .shard(shardOf(notification.getId()))
+                        .createdAt(now)
+                        .build())
+                .toList();
+
+        outboxRepository.saveAll(events);
+        log.debug("Outbox events recorded: type={}, count={}", eventType, events.size());
+    }
+
+    public NotificationEvent readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), NotificationEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid outbox payload: id=" + event.getId(), e);
+        }
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    private int shardOf(String notificationId) {
+        return Math.floorMod(notificationId.hashCode(), shards);
+    }
+
+    private String writePayload(NotificationEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize notification event: id=" + event.getNotificationId(), e);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.notification.core.service;
+
+import com.notification.core.metrics.MetricsService;
+import com.notification.core.model.Channel;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Leases de quota: reserva no quota-service um bloco de unidades por (client, channel) e distribui
+ * localmente com CAS, sem chamada HTTP por envio. O tamanho do bloco acompanha a taxa de envio
+ * observada (EWMA) para cobrir ~target-window-ms de tráfego. Unidades não usadas voltam ao
+ * quota-service quando o lease expira, então o total consumido nunca passa do limite do cliente.
+ * Devoluções que falham ficam numa fila e são reenviadas a cada varredura; se a resposta de uma devolução
+ * aplicada se perder, o reenvio devolve as mesmas unidades duas vezes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuotaLeaseManager {
+
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final QuotaValidationService quotaValidationService;
+    private final MetricsService metricsService;
+
+    private final Map<LeaseKey, LeaseSlot> slots = new ConcurrentHashMap<>();
+    private final Queue<PendingReturn> pendingReturns = new ConcurrentLinkedQueue<>();
+
+    @Value("${notification.quota-lease.enabled:false}")
+    private boolean enabled;
+
+    @Value("${notification.quota-lease.min-block:1}")
+    private long minBlock;
+
+    @Value("${notification.quota-lease.max-block:1000}")
+    private long maxBlock;
+
+    @Value("${notification.quota-lease.target-window-ms:1000}")
+    private long targetWindowMs;
+
+    @Value("${notification.quota-lease.ttl-ms:5000}")
+    private long ttlMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Consome uma unidade do lease local, renovando o lease quando ele acaba ou expira.
+     *
+     * @return false se o quota-service não concedeu nenhuma unidade (quota esgotada)
+     */
+    public boolean tryAcquire(String clientId, Channel channel) {
+        LeaseKey key = new LeaseKey(clientId, channel);
+        LeaseSlot slot = slots.computeIfAbsent(key, k -> new LeaseSlot());
+
+        Lease lease = slot.current;
+        if (lease != null && lease.tryTake()) {
+            slot.taken.incrementAndGet();
+            metricsService.incrementQuotaLease("local");
+            return true;
+        }
+
+        return refillAndTake(key, slot);
+    }
+
+    /**
+     * Devolve uma unidade que não virou notificação: ao lease vigente, ou direto ao quota-service.
+     */
+    public void release(String clientId, Channel channel, long amount, String reference) {
+        LeaseSlot slot = slots.get(new LeaseKey(clientId, channel));
+        Lease lease = slot != null ? slot.current : null;
+
+        if (lease != null && lease.giveBack(amount)) {
+            return;
+        }
+
+        quotaValidationService.releaseQuota(clientId, channel, amount, reference);
+    }
+
+    private boolean refillAndTake(LeaseKey key, LeaseSlot slot) {
+        slot.lock.lock();
+        try {
+            // Outra thread pode ter renovado enquanto esperávamos o lock
+            Lease current = slot.current;
+            if (current != null && current.tryTake()) {
+                slot.taken.incrementAndGet();
+                metricsService.incrementQuotaLease("local");
+                return true;
+            }
+
+            long block = slot.nextBlockSize();
+            String leaseId = UUID.randomUUID().toString();
+            long granted = quotaValidationService.requestLease(key.clientId(), key.channel(), block, leaseId);
+
+            retire(key, current);
+
+            if (granted <= 0) {
+                slot.current = null;
+                metricsService.incrementQuotaLease("denied");
+                return false;
+            }
+
+            Lease fresh = new Lease(leaseId, granted, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+            fresh.tryTake();
+            slot.current = fresh;
+            slot.taken.incrementAndGet();
+
+            log.debug("Quota lease renewed: clientId={}, channel={}, requested={}, granted={}, leaseId={}",
+                    key.clientId(), key.channel(), block, granted, leaseId);
+            metricsService.incrementQuotaLease("refill");
+            return true;
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.quota-lease.sweep-interval-ms:1000}")
+    public void expireLeases() {
+        retryPendingReturns();
+
+        slots.forEach((key, slot) -> {
+            Lease lease = slot.current;
+            if (lease == null || !lease.isExpired() || !slot.lock.tryLock()) {
+                return;
+            }
+            try {
+                if (slot.current == lease) {
+                    slot.current = null;
+                    retire(key, lease);
+                }
+            } finally {
+                slot.lock.unlock();
+            }
+        });
+    }
+
+    @PreDestroy
+    void returnAll() {
+        slots.forEach((key, slot) -> {
+            retire(key, slot.current);
+            slot.current = null;
+        });
+
+        retryPendingReturns();
+        pendingReturns.forEach(pending -> log.error("Quota lease units not returned on shutdown: clientId={}, channel={}, amount={}, reference={}",
+                pending.key().clientId(), pending.key().channel(), pending.amount(), pending.reference()));
+    }
+
+    private void retire(LeaseKey key, Lease lease) {
+        if (lease == null) {
+            return;
+        }
+
+        long unused = lease.drain();
+        if (unused > 0) {
+            returnUnits(new PendingReturn(key, unused, "lease:" + lease.id));
+        }
+    }
+
+    private void returnUnits(PendingReturn pending) {
+        LeaseKey key = pending.key();
+        if (!quotaValidationService.tryReleaseQuota(key.clientId(), key.channel(), pending.amount(), pending.reference())) {
+            metricsService.incrementQuotaLeaseReturnFailed();
+            pendingReturns.add(pending);
+        }
+    }
+
+    /**
+     * Uma tentativa por devolução pendente; as que falharem de novo voltam para o fim da fila.
+     */
+    private void retryPendingReturns() {
+        for (int i = pendingReturns.size(); i > 0; i--) {
+            PendingReturn pending = pendingReturns.poll();
+            if (pending == null) {
+                return;
+            }
+            returnUnits(pending);
+        }
+    }
+
+    private record LeaseKey(String clientId, Channel channel) {
+    }
+
+    private record PendingReturn(LeaseKey key, long amount, String reference) {
+    }
+
+    private final class LeaseSlot {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicLong taken = new AtomicLong();
+        private volatile Lease current;
+
+        // Acessados apenas com o lock
+        private long lastRefillNanos = System.nanoTime();
+        private double rate = -1;
+
+        /**
+         * Bloco = taxa suavizada (unidades/s) * janela alvo, limitado a [min-block, max-block].
+         */
+        long nextBlockSize() {
+            long now = System.nanoTime();
+            double elapsedSeconds = Math.max(now - lastRefillNanos, 1) / 1_000_000_000.0;
+            double observed = taken.getAndSet(0) / elapsedSeconds;
+            lastRefillNanos = now;
+
+            rate = rate < 0 ? observed : RATE_SMOOTHING * observed + (1 - RATE_SMOOTHING) * rate;
+
+            long block = (long) Math.ceil(rate * targetWindowMs / 1000.0);
+            return Math.max(minBlock, Math.min(maxBlock, block));
+        }
+    }
+
+    private static final class Lease {
+
+        private final String id;
+        private final AtomicLong remaining;
+        private final long expiresAtNanos;
+
+        Lease(String id, long granted, long expiresAtNanos) {
+            this.id = id;
+            this.remaining = new AtomicLong(granted);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+
+        boolean tryTake() {
+            if (isExpired()) {
+                return false;
+            }
+            long value;
+            do {
+                value = remaining.get();
+                if (value <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(value, value - 1));
+            return true;
+        }
+
+        /**
+         * Só aceita de volta enquanto o lease está vigente; depois de drenado as unidades iriam se perder.
+         */
+        boolean giveBack(long amount) {
+            long value;
+            do {
+                value = remaining.get();
+                if (value < 0 || isExpired()) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(value, value + amount));
+            return true;
+        }
+
+        /**
+         * Zera o lease e retorna o que sobrou; -1 marca o lease como encerrado para giveBack.
+         */
+        long drain() {
+            return Math.max(remaining.getAndSet(-1), 0);
+        }
+    }
+}
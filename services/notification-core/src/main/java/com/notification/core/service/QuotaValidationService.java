@@ -1,5 +1,7 @@
 package com.notification.core.service;
 
+import com.notification.core.dto.QuotaLeaseRequest;
+import com.notification.core.dto.QuotaLeaseResponse;
 import com.notification.core.dto.QuotaValidationRequest;
 import com.notification.core.dto.QuotaValidationResponse;
 import com.notification.core.exception.QuotaServiceException;
@@ -8,6 +10,7 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
@@ -19,6 +22,7 @@ import org.springframework.web.client.RestClient;
 @RequiredArgsConstructor
 public class QuotaValidationService {
 
+    @Qualifier("quotaServiceRestClient")
     private final RestClient restClient;
 
     @Value("${quota-service.url}")
@@ -29,6 +33,127 @@ public class QuotaValidationService {
         log.info("Validating quota: clientId={}, channel={}, amount={}, notificationId={}",
                 clientId, channel, amount, notificationId);
 
+        QuotaValidationResponse response = callValidate(clientId, channel, amount, notificationId);
+
+        if (response != null && response.getAllowed() != null) {
+            boolean allowed = response.getAllowed();
+            log.info("Quota validation result: allowed={}, available={}", allowed, response.getAvailableQuota());
+            return allowed;
+        }
+
+        log.warn("Invalid response from quota service");
+        return false;
+    }
+
+    /**
+     * Reserva até {@code requested} unidades de uma vez para um lote.
+     * Se a quota não cobre o lote inteiro, reserva o que ainda estiver disponível.
+     * Sem @Retry: o consumo de várias unidades não é idempotente, e um retry após um timeout que consumiu
+     * no quota-service debitaria o lote duas vezes sem que ninguém o devolvesse (mesmo motivo de {@link #requestLease}).
+     *
+     * @return quantidade efetivamente reservada (0 se nada pôde ser reservado)
+     */
+    public long reserveQuota(String clientId, Channel channel, long requested, String reference) {
+        log.info("Reserving quota: clientId={}, channel={}, requested={}, reference={}",
+                clientId, channel, requested, reference);
+
+        QuotaValidationResponse response = callValidate(clientId, channel, requested, reference);
+        if (response == null || response.getAllowed() == null) {
+            log.warn("Invalid response from quota service");
+            return 0;
+        }
+
+        if (response.getAllowed()) {
+            return requested;
+        }
+
+        Long available = response.getAvailableQuota();
+        if (available == null || available <= 0) {
+            log.info("Quota exhausted: clientId={}, channel={}", clientId, channel);
+            return 0;
+        }
+
+        QuotaValidationResponse partial = callValidate(clientId, channel, available, reference);
+        long granted = partial != null && Boolean.TRUE.equals(partial.getAllowed()) ? available : 0;
+        log.info("Partial quota reservation: clientId={}, channel={}, requested={}, granted={}",
+                clientId, channel, requested, granted);
+        return granted;
+    }
+
+    /**
+     * Pede um bloco (lease) de até {@code requested} unidades para distribuição local.
+     * Sem @Retry: um retry após timeout poderia conceder o bloco duas vezes sem que ninguém o devolvesse.
+     *
+     * @return unidades concedidas (0 se a quota estiver esgotada)
+     */
+    public long requestLease(String clientId, Channel channel, long requested, String leaseId) {
+        log.info("Requesting quota lease: clientId={}, channel={}, requested={}, leaseId={}",
+                clientId, channel, requested, leaseId);
+
+        try {
+            QuotaLeaseResponse response = restClient.post()
+                    .uri(quotaServiceUrl + "/quotas/leases")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(QuotaLeaseRequest.builder()
+                            .clientId(clientId)
+                            .channel(channel)
+                            .requested(requested)
+                            .leaseId(leaseId)
+                            .build())
+                    .retrieve()
+                    .onStatus(HttpStatusCode::is4xxClientError, (req, res) ->
+                            log.warn("Quota lease denied: status={}", res.getStatusCode()))
+                    .onStatus(HttpStatusCode::is5xxServerError, (req, res) -> {
+                        log.error("Quota service lease error: status={}", res.getStatusCode());
+                        throw new QuotaServiceException("Quota service returned error: " + res.getStatusCode());
+                    })
+                    .body(QuotaLeaseResponse.class);
+
+            long granted = response != null && response.getGranted() != null ? response.getGranted() : 0;
+            log.info("Quota lease result: leaseId={}, requested={}, granted={}", leaseId, requested, granted);
+            return granted;
+
+        } catch (QuotaServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error requesting quota lease: {}", e.getMessage(), e);
+            throw new QuotaServiceException("Failed to request quota lease", e);
+        }
+    }
+
+    /**
+     * Devolve unidades reservadas que não geraram notificação.
+     * Best effort: falhas são apenas logadas para não mascarar o erro original.
+     */
+    public void releaseQuota(String clientId, Channel channel, long amount, String reference) {
+        tryReleaseQuota(clientId, channel, amount, reference);
+    }
+
+    /**
+     * Como {@link #releaseQuota}, informando se o quota-service confirmou a devolução (para quem precisa reenviar).
+     */
+    public boolean tryReleaseQuota(String clientId, Channel channel, long amount, String reference) {
+        if (amount <= 0) {
+            return true;
+        }
+
+        log.info("Releasing quota: clientId={}, channel={}, amount={}, reference={}", clientId, channel, amount, reference);
+
+        try {
+            restClient.post()
+                    .uri(quotaServiceUrl + "/quotas/release?clientId={clientId}&channel={channel}&amount={amount}&notificationId={reference}",
+                            clientId, channel, amount, reference)
+                    .retrieve()
+                    .toBodilessEntity();
+            return true;
+        } catch (Exception e) {
+            log.error("Error releasing quota: clientId={}, channel={}, amount={}, error={}",
+                    clientId, channel, amount, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private QuotaValidationResponse callValidate(String clientId, Channel channel, Long amount, String notificationId) {
         try {
             QuotaValidationRequest request = QuotaValidationRequest.builder()
                     .clientId(clientId)
@@ -37,7 +162,7 @@ public class QuotaValidationService {
                     .notificationId(notificationId)
                     .build();
 
-            QuotaValidationResponse response = restClient.post()
+            return restClient.post()
                     .uri(quotaServiceUrl + "/quotas/validate")
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(request)
@@ -50,15 +175,6 @@ public class QuotaValidationService {
                     })
                     .body(QuotaValidationResponse.class);
 
-            if (response != null && response.getAllowed() != null) {
-                boolean allowed = response.getAllowed();
-                log.info("Quota validation result: allowed={}, available={}", allowed, response.getAvailableQuota());
-                return allowed;
-            }
-
-            log.warn("Invalid response from quota service");
-            return false;
-
         } catch (QuotaServiceException e) {
             throw e;
         } catch (Exception e) {
@@ -1,5 +1,7 @@
 package com.notification.core.service;
 
+import com.notification.core.dto.BatchRenderTemplateRequest;
+import com.notification.core.dto.BatchRenderTemplateResponse;
 import com.notification.core.dto.NotificationRequest;
 import com.notification.core.dto.RenderTemplateResponse;
 import com.notification.core.exception.QuotaServiceException;
@@ -8,17 +10,21 @@ import com.notification.core.exception.TemplateServiceUnavailableException;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TemplateService {
 
+    @Qualifier("templateServiceRestClient")
     private final RestClient restClient;
 
     @Value("${template-service.url}")
@@ -52,5 +58,36 @@ public class TemplateService {
             throw new TemplateServiceException("Failed to render template", e);
         }
     }
-}
 
+    @Retry(name = "templateService")
+    public List<BatchRenderTemplateResponse.RenderResult> renderTemplates(List<NotificationRequest> requests) {
+        try {
+            log.debug("Calling Template Service to render batch: size={}", requests.size());
+            BatchRenderTemplateResponse response = restClient.post()
+                    .uri(templateServiceUrl + "/internal/v1/templates/render/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(BatchRenderTemplateRequest.builder().requests(requests).build())
+                    .retrieve()
+                    .onStatus(HttpStatusCode::is4xxClientError, (req, res) -> {
+                        log.warn("Template batch render failed: status={}", res.getStatusCode());
+                        throw new TemplateServiceException("Template service returned error: " + res.getStatusCode());
+                    })
+                    .onStatus(HttpStatusCode::is5xxServerError, (req, res) -> {
+                        log.error("Template service error: status={}", res.getStatusCode());
+                        throw new TemplateServiceUnavailableException("Template service returned error: " + res.getStatusCode());
+                    })
+                    .body(BatchRenderTemplateResponse.class);
+
+            if (response == null || response.getResults() == null || response.getResults().size() != requests.size()) {
+                throw new TemplateServiceException("Invalid batch response from template service");
+            }
+
+            return response.getResults();
+        } catch (TemplateServiceException | TemplateServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error rendering template batch: {}", e.getMessage(), e);
+            throw new TemplateServiceException("Failed to render template batch", e);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Coberto pelo prefixo de idx_notifications_client_created_id. Só roda depois da V8, e a V8 só conclui
+-- com o índice novo válido (CREATE INDEX CONCURRENTLY falha em vez de deixá-lo INVALID).
+DROP INDEX CONCURRENTLY IF EXISTS idx_notification_client_id;
@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    notification_id VARCHAR(36) NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    payload TEXT NOT NULL,
+    shard SMALLINT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE notification_outbox IS 'Events written in the same transaction as the notification, published to Kafka by the outbox relay';
+COMMENT ON COLUMN notification_outbox.event_type IS 'Event type: NOTIFICATION_CREATED, NOTIFICATION_DLQ';
+COMMENT ON COLUMN notification_outbox.payload IS 'Serialized NotificationEvent (JSON)';
+COMMENT ON COLUMN notification_outbox.shard IS 'Relay partition, derived from notification_id; each shard is drained by one relay at a time';
+COMMENT ON COLUMN notification_outbox.attempts IS 'Failed publish attempts';
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_shard_id ON notification_outbox(shard, id);
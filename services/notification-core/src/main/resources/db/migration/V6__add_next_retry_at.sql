@@ -0,0 +1,7 @@
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMP;
+
+COMMENT ON COLUMN notifications.next_retry_at IS 'When a RETRYING notification is due to be republished by the RetryScheduler (NULL once dispatched)';
+
+-- Só as notificações aguardando reenvio entram no índice; o scheduler varre por next_retry_at
+CREATE INDEX IF NOT EXISTS idx_notifications_next_retry_at ON notifications(next_retry_at)
+    WHERE status = 'RETRYING' AND next_retry_at IS NOT NULL;
@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS notification_status_counts (
+    status VARCHAR(20) PRIMARY KEY,
+    count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE notification_status_counts IS 'Notifications per status, read by /notifications/stats; kept up to date by NotificationStatusCounter checkpoints';
+COMMENT ON COLUMN notification_status_counts.count IS 'Running total; each core instance adds its own deltas (count = count + delta)';
+
+-- Seed com a contagem atual; a partir daqui só os deltas das transições são aplicados
+INSERT INTO notification_status_counts (status, count)
+SELECT status, COUNT(*) FROM notifications GROUP BY status
+ON CONFLICT (status) DO NOTHING;
+
+INSERT INTO notification_status_counts (status, count)
+VALUES ('PENDING', 0), ('PROCESSING', 0), ('SENT', 0), ('FAILED', 0), ('RETRYING', 0)
+ON CONFLICT (status) DO NOTHING;
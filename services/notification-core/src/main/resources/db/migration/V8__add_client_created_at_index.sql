@@ -0,0 +1,14 @@
+-- Paginação keyset da listagem por cliente: seek em (client_id, created_at, id), na ordem da listagem.
+-- CONCURRENTLY não bloqueia escritas em notifications e não roda em transação (V8__...sql.conf).
+
+-- Um CONCURRENTLY interrompido deixa o índice INVALID; sem isto o IF NOT EXISTS abaixo o aceitaria
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+               WHERE c.relname = 'idx_notifications_client_created_id' AND NOT i.indisvalid) THEN
+        DROP INDEX idx_notifications_client_created_id;
+    END IF;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_client_created_id
+    ON notifications(client_id, created_at DESC, id DESC);
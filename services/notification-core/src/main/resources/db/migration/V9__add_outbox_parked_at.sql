@@ -0,0 +1,7 @@
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP;
+
+COMMENT ON COLUMN notification_outbox.parked_at IS 'Set when attempts reaches notification.outbox.relay.max-attempts; parked rows are skipped by the relay. Requeue with: UPDATE notification_outbox SET parked_at = NULL, attempts = 0 WHERE id = ...';
+
+-- O relay só lê eventos não estacionados
+DROP INDEX IF EXISTS idx_notification_outbox_shard_id;
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_shard_id ON notification_outbox(shard, id) WHERE parked_at IS NULL;
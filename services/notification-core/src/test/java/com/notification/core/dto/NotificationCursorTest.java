@@ -0,0 +1,42 @@
+package com.notification.core.dto;
+
+import com.notification.core.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NotificationCursorTest {
+
+    @Test
+    void shouldDecodeWhatWasEncoded() {
+        // Given
+        NotificationCursor cursor = new NotificationCursor(
+                LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000), "0b6f1c9e-3d2a-4c1b-9f8e-7a6d5c4b3a21");
+
+        // When
+        String encoded = cursor.encode();
+
+        // Then
+        assertFalse(encoded.contains("=") || encoded.contains("+") || encoded.contains("/"));
+        assertEquals(cursor, NotificationCursor.decode(encoded));
+    }
+
+    @Test
+    void shouldRejectMalformedCursors() {
+        assertThrows(InvalidCursorException.class, () -> NotificationCursor.decode("not base64!"));
+        assertThrows(InvalidCursorException.class, () -> NotificationCursor.decode(encode("2025-03-14T15:09:26")));
+        assertThrows(InvalidCursorException.class, () -> NotificationCursor.decode(encode("|some-id")));
+        assertThrows(InvalidCursorException.class, () -> NotificationCursor.decode(encode("2025-03-14T15:09:26|")));
+        assertThrows(InvalidCursorException.class, () -> NotificationCursor.decode(encode("yesterday|some-id")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
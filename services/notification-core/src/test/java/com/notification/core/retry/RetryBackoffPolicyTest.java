@@ -0,0 +1,69 @@
+package com.notification.core.retry;
+
+import com.notification.core.model.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBackoffPolicyTest {
+
+    private RetryProperties properties;
+    private RetryBackoffPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RetryProperties();
+        policy = new RetryBackoffPolicy(properties);
+    }
+
+    @Test
+    void shouldGrowExponentiallyUpToMaxDelayWithoutJitter() {
+        // Given
+        properties.getBackoff().setJitter(0);
+
+        // When / Then
+        assertEquals(Duration.ofSeconds(10), policy.delay(Channel.EMAIL, 1));
+        assertEquals(Duration.ofSeconds(60), policy.delay(Channel.EMAIL, 2));
+        assertEquals(Duration.ofSeconds(360), policy.delay(Channel.EMAIL, 3));
+        assertEquals(Duration.ofMinutes(10), policy.delay(Channel.EMAIL, 4));
+        assertEquals(Duration.ofMinutes(10), policy.delay(Channel.EMAIL, 30));
+    }
+
+    @Test
+    void shouldKeepJitterWithinBounds() {
+        // Given
+        properties.getBackoff().setJitter(0.2);
+
+        for (int i = 0; i < 1000; i++) {
+            // When
+            long first = policy.delay(Channel.EMAIL, 1).toMillis();
+            long capped = policy.delay(Channel.EMAIL, 10).toMillis();
+
+            // Then
+            assertTrue(first >= 8_000 && first <= 12_000, "first retry out of bounds: " + first);
+            assertTrue(capped >= 480_000 && capped <= 720_000, "capped retry out of bounds: " + capped);
+        }
+    }
+
+    @Test
+    void shouldUseChannelSpecificBackoff() {
+        // Given
+        RetryProperties.Backoff sms = new RetryProperties.Backoff();
+        sms.setInitialDelay(Duration.ofSeconds(2));
+        sms.setMultiplier(2);
+        sms.setMaxDelay(Duration.ofSeconds(30));
+        sms.setJitter(0);
+        properties.getChannels().put(Channel.SMS, sms);
+        properties.getBackoff().setJitter(0);
+
+        // When / Then
+        assertEquals(Duration.ofSeconds(2), policy.delay(Channel.SMS, 1));
+        assertEquals(Duration.ofSeconds(8), policy.delay(Channel.SMS, 3));
+        assertEquals(Duration.ofSeconds(30), policy.delay(Channel.SMS, 10));
+        assertEquals(Duration.ofSeconds(10), policy.delay(Channel.PUSH, 1));
+    }
+}
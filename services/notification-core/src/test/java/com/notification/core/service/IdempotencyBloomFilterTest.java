@@ -0,0 +1,121 @@
+package com.notification.core.service;
+
+import com.notification.core.repository.IdempotencyBloomRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyBloomFilterTest {
+
+    private static final long EXPECTED_INSERTIONS = 1000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final List<long[]> checkedOffsets = new ArrayList<>();
+    private final List<long[]> addedOffsets = new ArrayList<>();
+    private final BitSet bitset = new BitSet();
+
+    private boolean redisDown;
+    private IdempotencyBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        redisDown = false;
+
+        // Uma única janela em memória no lugar dos bitsets do Redis
+        IdempotencyBloomRepository repository = new IdempotencyBloomRepository(null) {
+            @Override
+            public List<Boolean> mightContainAll(List<String> windowKeys, List<long[]> offsetsPerItem) {
+                if (redisDown) {
+                    throw new IllegalStateException("Redis down");
+                }
+                checkedOffsets.addAll(offsetsPerItem);
+                return offsetsPerItem.stream()
+                        .map(offsets -> Arrays.stream(offsets).allMatch(offset -> bitset.get((int) offset)))
+                        .toList();
+            }
+
+            @Override
+            public long addAll(String windowKey, String countKey, List<long[]> offsetsPerItem, Duration ttl) {
+                addedOffsets.addAll(offsetsPerItem);
+                offsetsPerItem.forEach(offsets -> Arrays.stream(offsets).forEach(offset -> bitset.set((int) offset)));
+                return addedOffsets.size();
+            }
+        };
+
+        filter = new IdempotencyBloomFilter(repository, new SimpleMeterRegistry(), true,
+                EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE, Duration.ofDays(1), 7);
+    }
+
+    @Test
+    void shouldSizeFilterFromExpectedInsertionsAndFalsePositiveRate() {
+        // When
+        long bits = IdempotencyBloomFilter.optimalBits(1_000_000, 0.01);
+        int hashes = IdempotencyBloomFilter.optimalHashes(1_000_000, bits);
+
+        // Then
+        assertEquals(9_585_059, bits);
+        assertEquals(7, hashes);
+        assertEquals(1, IdempotencyBloomFilter.optimalHashes(1_000_000, 1));
+    }
+
+    @Test
+    void shouldDeriveSameOffsetsInRangeForSameKey() {
+        // Given
+        long bits = IdempotencyBloomFilter.optimalBits(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+        int hashes = IdempotencyBloomFilter.optimalHashes(EXPECTED_INSERTIONS, bits);
+
+        // When
+        filter.add("key-1");
+        filter.mightContain("key-1");
+        filter.mightContain("key-2");
+
+        // Then
+        long[] added = addedOffsets.get(0);
+        assertEquals(hashes, added.length);
+        assertTrue(Arrays.stream(added).allMatch(offset -> offset >= 0 && offset < bits));
+        assertArrayEquals(added, checkedOffsets.get(0));
+        assertFalse(Arrays.equals(added, checkedOffsets.get(1)));
+    }
+
+    @Test
+    void shouldReportAddedKeysAndMostlyRejectUnknownKeys() {
+        // Given
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            added.add("added-" + i);
+        }
+        filter.addAll(added);
+
+        // When
+        long falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("unknown-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(filter.mightContainAll(added).stream().allMatch(Boolean::booleanValue));
+        assertTrue(falsePositives < 300, "too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldAssumeKeysMayExistWhenRedisFails() {
+        // Given
+        redisDown = true;
+
+        // When / Then
+        assertEquals(List.of(true, true), filter.mightContainAll(List.of("key-1", "key-2")));
+    }
+}
@@ -1,6 +1,8 @@
 package com.notification.provider.email.config;
 
 import com.notification.provider.email.dto.NotificationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +12,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
@@ -19,8 +22,11 @@ import java.util.Map;
 
 @EnableKafka
 @Configuration
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
@@ -30,6 +36,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.listener.concurrency:20}")
     private Integer concurrency;
 
+    @Value("${kafka.listener.batch.concurrency:4}")
+    private Integer batchConcurrency;
+
     @Value("${spring.kafka.consumer.properties.max.poll.records:500}")
     private Integer maxPollRecords;
 
@@ -67,7 +76,10 @@ public class KafkaConfig {
         config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
         config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
 
-        return new DefaultKafkaConsumerFactory<>(config);
+        DefaultKafkaConsumerFactory<String, NotificationEvent> factory = new DefaultKafkaConsumerFactory<>(config);
+        // Métricas do client (kafka.consumer.fetch.manager.records.lag por tópico/partição = lag de cada faixa)
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -80,5 +92,21 @@ public class KafkaConfig {
 
         return factory;
     }
+
+    /**
+     * Factory para o listener em lote (kafka.listener.batch.enabled): cada poll chega inteiro ao listener,
+     * que despacha os envios em paralelo e confirma os offsets de cada partição ao final (commitSync no próprio listener).
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(batchConcurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        return factory;
+    }
 }
 
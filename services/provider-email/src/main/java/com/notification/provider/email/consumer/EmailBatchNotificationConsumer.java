@@ -0,0 +1,351 @@
+package com.notification.provider.email.consumer;
+
+import com.notification.provider.email.dto.EmailResponse;
+import com.notification.provider.email.dto.NotificationEvent;
+import com.notification.provider.email.service.EmailNotificationService;
+import com.notification.provider.email.service.NotificationEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Modo em lote do tópico notification.created.email (kafka.listener.batch.enabled=true).
+ * Cada poll é despachado em virtual threads: registros com a mesma chave seguem em ordem numa
+ * mesma thread, e um semáforo por partição limita os envios simultâneos. Com bulk-send=true, o poll é enviado
+ * pelo endpoint em massa dos providers em ondas (a n-ésima mensagem de cada chave), cada onda dividida em
+ * chamadas de até bulk-size e a próxima onda só começa quando a anterior termina, preservando a ordem por chave.
+ * Cada partição é confirmada até o seu menor offset ainda não concluído; só as partições com pendências são
+ * reentregues.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailBatchNotificationConsumer {
+
+    private final EmailNotificationService emailNotificationService;
+    private final NotificationEventPublisher eventPublisher;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${kafka.listener.batch.max-in-flight-per-partition:50}")
+    private int maxInFlightPerPartition;
+
+    @Value("${kafka.listener.batch.timeout-ms:240000}")
+    private long batchTimeoutMs;
+
+    @Value("${kafka.listener.batch.bulk-send:false}")
+    private boolean bulkSend;
+
+    @Value("${kafka.listener.batch.bulk-size:100}")
+    private int bulkSize;
+
+    @KafkaListener(
+            id = "emailChannelBatchConsumer",
+            topics = "${kafka.topics.notification-created-channel}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${kafka.listener.batch.enabled:false}"
+    )
+    public void handleBatch(List<ConsumerRecord<String, NotificationEvent>> records, Consumer<?, ?> consumer) {
+        long start = System.nanoTime();
+        AtomicIntegerArray completed = new AtomicIntegerArray(records.size());
+
+        if (bulkSend) {
+            sendInWaves(records, completed, start);
+        } else {
+            CountDownLatch latch = new CountDownLatch(records.size());
+            AtomicBoolean cancelled = new AtomicBoolean();
+
+            for (List<List<Integer>> keyChains : groupByPartitionAndKey(records).values()) {
+                Semaphore inFlight = new Semaphore(maxInFlightPerPartition);
+
+                for (List<Integer> chain : keyChains) {
+                    executor.execute(() -> runChain(records, chain, inFlight, completed, latch, cancelled));
+                }
+            }
+
+            awaitChains(records.size(), latch, cancelled);
+        }
+
+        int committed = commitCompleted(records, completed, consumer);
+
+        log.info("EMAIL batch processed: size={}, committed={}, durationMs={}",
+                records.size(), committed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Espera as cadeias até o timeout do lote. Se estourar, nenhum registro novo é iniciado e os envios já
+     * em andamento terminam antes do commit, para que nada seja reentregue enquanto ainda está sendo enviado.
+     */
+    private void awaitChains(int size, CountDownLatch latch, AtomicBoolean cancelled) {
+        boolean interrupted = false;
+        try {
+            if (latch.await(batchTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+            log.warn("EMAIL batch timed out: size={}, pending={}", size, latch.getCount());
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+
+        cancelled.set(true);
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Modo bulk-send: a onda n tem a n-ésima mensagem de cada chave, então mensagens da mesma chave nunca estão
+     * na mesma chamada nem em chamadas simultâneas. As chamadas de uma onda rodam em paralelo. Estourado o
+     * timeout, nenhuma onda nova começa; a que está em andamento termina antes do commit.
+     */
+    private void sendInWaves(List<ConsumerRecord<String, NotificationEvent>> records, AtomicIntegerArray completed, long start) {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(batchTimeoutMs);
+        List<List<Integer>> waves = new ArrayList<>();
+
+        for (List<List<Integer>> keyChains : groupByPartitionAndKey(records).values()) {
+            for (List<Integer> chain : keyChains) {
+                for (int position = 0; position < chain.size(); position++) {
+                    if (waves.size() == position) {
+                        waves.add(new ArrayList<>());
+                    }
+                    waves.get(position).add(chain.get(position));
+                }
+            }
+        }
+
+        for (int n = 0; n < waves.size(); n++) {
+            if (System.nanoTime() > deadline) {
+                log.warn("EMAIL bulk batch timed out: size={}, pendingWaves={}", records.size(), waves.size() - n);
+                return;
+            }
+
+            List<Integer> wave = waves.get(n);
+
+            List<Future<?>> calls = new ArrayList<>();
+            for (int from = 0; from < wave.size(); from += bulkSize) {
+                List<Integer> chunk = wave.subList(from, Math.min(from + bulkSize, wave.size()));
+                calls.add(executor.submit(() -> sendChunk(records, chunk, completed)));
+            }
+
+            if (!awaitCalls(calls)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Espera todas as chamadas da onda, mesmo se interrompido, para não reentregar o que ainda está sendo enviado.
+     * @return false se a thread foi interrompida (nenhuma onda nova deve começar)
+     */
+    private boolean awaitCalls(List<Future<?>> calls) {
+        boolean interrupted = false;
+        for (Future<?> call : calls) {
+            while (true) {
+                try {
+                    call.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    log.error("EMAIL bulk call failed unexpectedly: error={}", e.getCause().getMessage(), e.getCause());
+                    break;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return !interrupted;
+    }
+
+    private void sendChunk(List<ConsumerRecord<String, NotificationEvent>> records, List<Integer> chunk,
+                           AtomicIntegerArray completed) {
+        List<Integer> sendable = new ArrayList<>(chunk.size());
+        for (int i : chunk) {
+            if (records.get(i).value() != null) {
+                sendable.add(i);
+            } else {
+                // Falha de desserialização (ErrorHandlingDeserializer): não há o que reenviar
+                log.error("Skipping undeserializable EMAIL record: partition={}, offset={}",
+                        records.get(i).partition(), records.get(i).offset());
+                completed.set(i, 1);
+            }
+        }
+
+        if (sendable.isEmpty()) {
+            return;
+        }
+
+        List<NotificationEvent> events = sendable.stream().map(i -> records.get(i).value()).toList();
+        List<EmailResponse> responses = emailNotificationService.sendEmailNotifications(events);
+
+        for (int j = 0; j < sendable.size(); j++) {
+            NotificationEvent event = events.get(j);
+            EmailResponse response = responses.get(j);
+
+            if (response.isSuccess()) {
+                eventPublisher.publishNotificationSent(event.getNotificationId(), response);
+            } else {
+                log.error("Failed to send EMAIL in bulk: id={}, error={}", event.getNotificationId(), response.getError());
+                eventPublisher.publishNotificationFailed(event.getNotificationId(), response.getError());
+            }
+            completed.set(sendable.get(j), 1);
+        }
+    }
+
+    /**
+     * Por partição: confirma até o menor offset ainda não concluído (ou até o fim do poll) e reposiciona
+     * só as partições que ficaram com registros pendentes. Partições concluídas não são reentregues.
+     * @return número de registros confirmados
+     */
+    private int commitCompleted(List<ConsumerRecord<String, NotificationEvent>> records, AtomicIntegerArray completed,
+                                Consumer<?, ?> consumer) {
+        Map<TopicPartition, Long> nextOffsets = new LinkedHashMap<>();
+        Map<TopicPartition, Long> firstIncomplete = new HashMap<>();
+
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, NotificationEvent> record = records.get(i);
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+
+            nextOffsets.merge(partition, record.offset() + 1, Math::max);
+            if (completed.get(i) == 0) {
+                firstIncomplete.merge(partition, record.offset(), Math::min);
+            }
+        }
+
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        nextOffsets.forEach((partition, next) ->
+                commits.put(partition, new OffsetAndMetadata(firstIncomplete.getOrDefault(partition, next))));
+        consumer.commitSync(commits);
+
+        firstIncomplete.forEach((partition, offset) -> {
+            log.warn("EMAIL partition has incomplete records, seeking back: partition={}, offset={}", partition, offset);
+            consumer.seek(partition, offset);
+        });
+
+        int committed = 0;
+        for (ConsumerRecord<String, NotificationEvent> record : records) {
+            if (record.offset() < commits.get(new TopicPartition(record.topic(), record.partition())).offset()) {
+                committed++;
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * Partição -> cadeias de índices por chave, na ordem em que chegaram no poll.
+     */
+    private Map<Integer, List<List<Integer>>> groupByPartitionAndKey(List<ConsumerRecord<String, NotificationEvent>> records) {
+        Map<Integer, Map<String, List<Integer>>> byPartition = new LinkedHashMap<>();
+
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, NotificationEvent> record = records.get(i);
+            String key = Objects.requireNonNullElse(record.key(), "offset-" + record.offset());
+
+            byPartition.computeIfAbsent(record.partition(), p -> new LinkedHashMap<>())
+                    .computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(i);
+        }
+
+        Map<Integer, List<List<Integer>>> chains = new LinkedHashMap<>();
+        byPartition.forEach((partition, byKey) -> chains.put(partition, new ArrayList<>(byKey.values())));
+        return chains;
+    }
+
+    private void runChain(List<ConsumerRecord<String, NotificationEvent>> records, List<Integer> chain,
+                          Semaphore inFlight, AtomicIntegerArray completed, CountDownLatch latch, AtomicBoolean cancelled) {
+        for (int position = 0; position < chain.size(); position++) {
+            int i = chain.get(position);
+
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                skipRemaining(chain, position, latch);
+                return;
+            }
+
+            if (cancelled.get()) {
+                inFlight.release();
+                skipRemaining(chain, position, latch);
+                return;
+            }
+
+            try {
+                NotificationEvent event = records.get(i).value();
+                if (event != null) {
+                    process(event);
+                } else {
+                    // Falha de desserialização (ErrorHandlingDeserializer): não há o que reenviar
+                    log.error("Skipping undeserializable EMAIL record: partition={}, offset={}",
+                            records.get(i).partition(), records.get(i).offset());
+                }
+                completed.set(i, 1);
+            } finally {
+                inFlight.release();
+                latch.countDown();
+            }
+        }
+    }
+
+    /**
+     * Libera no latch os registros da cadeia que não serão processados (ficam incompletos e são reentregues).
+     */
+    private void skipRemaining(List<Integer> chain, int fromPosition, CountDownLatch latch) {
+        for (int position = fromPosition; position < chain.size(); position++) {
+            latch.countDown();
+        }
+    }
+
+    private void process(NotificationEvent event) {
+        log.info("Processing EMAIL notification: id={}, recipient={}", event.getNotificationId(), event.getRecipient());
+
+        try {
+            EmailResponse response = emailNotificationService.sendEmailNotification(event);
+            eventPublisher.publishNotificationSent(event.getNotificationId(), response);
+            log.info("EMAIL notification sent successfully: id={}", event.getNotificationId());
+        } catch (Exception e) {
+            log.error("Failed to send EMAIL after retries: id={}, error={}", event.getNotificationId(), e.getMessage());
+            eventPublisher.publishNotificationFailed(event.getNotificationId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
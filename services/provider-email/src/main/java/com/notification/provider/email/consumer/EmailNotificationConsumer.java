@@ -3,34 +3,133 @@ package com.notification.provider.email.consumer;
 import com.notification.provider.email.dto.Channel;
 import com.notification.provider.email.dto.NotificationEvent;
 import com.notification.provider.email.dto.EmailResponse;
+import com.notification.provider.email.lane.PriorityLane;
+import com.notification.provider.email.lane.PriorityLaneGate;
+import com.notification.provider.email.metrics.MetricsService;
 import com.notification.provider.email.service.NotificationEventPublisher;
 import com.notification.provider.email.service.EmailNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class EmailNotificationConsumer {
 
+    private static final String CHANNEL_TOPIC_HEADER = "channelTopic";
+
     private final EmailNotificationService emailNotificationService;
     private final NotificationEventPublisher eventPublisher;
+    private final PriorityLaneGate laneGate;
+    private final MetricsService metricsService;
+
+    /**
+     * Tópico dedicado do canal (notification.created.email): só chegam notificações EMAIL.
+     */
+    @KafkaListener(
+            id = "emailChannelConsumer",
+            topics = "${kafka.topics.notification-created-channel}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "#{!${kafka.listener.batch.enabled:false}}"
+    )
+    public void handleNotification(NotificationEvent event, Acknowledgment ack) {
+        process(event, ack);
+    }
 
+    /**
+     * Tópico compartilhado, mantido durante a migração para tópicos por canal (kafka.topics.consume-shared).
+     * Ignora outros canais e as cópias marcadas com channelTopic, já entregues pelo tópico do canal.
+     */
     @KafkaListener(
+            id = "emailSharedConsumer",
             topics = "${kafka.topics.notification-created}",
-            groupId = "${spring.kafka.consumer.group-id}"
+            groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "${kafka.topics.consume-shared:true}"
     )
-    public void handleNotification(NotificationEvent event, @Header("channel") String channel, Acknowledgment ack) {
+    public void handleSharedNotification(NotificationEvent event,
+                                         @Header("channel") String channel,
+                                         @Header(name = CHANNEL_TOPIC_HEADER, required = false) String channelTopic,
+                                         Acknowledgment ack) {
         if (!Channel.EMAIL.name().equalsIgnoreCase(channel)) {
             log.trace("Skipping non-EMAIL notification: channel={}", channel);
             ack.acknowledge();
             return;
         }
 
+        if (channelTopic != null) {
+            log.trace("Skipping dual-published notification, delivered through {}: id={}", channelTopic, event.getNotificationId());
+            ack.acknowledge();
+            return;
+        }
+
+        process(event, ack);
+    }
+
+    /**
+     * Faixas de prioridade (kafka.listener.lanes.enabled): notification.created.email.{high|normal|low}.
+     * Os envios das três faixas passam pelo {@link PriorityLaneGate}, que prioriza HIGH sem deixar LOW sem vez.
+     */
+    @KafkaListener(
+            id = "emailHighLaneConsumer",
+            topics = "${kafka.topics.notification-created-channel}.high",
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${kafka.listener.lanes.concurrency.high:10}",
+            autoStartup = "${kafka.listener.lanes.enabled:false}"
+    )
+    public void handleHighLane(NotificationEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long producedAt,
+                               Acknowledgment ack) throws InterruptedException {
+        processInLane(PriorityLane.HIGH, event, producedAt, ack);
+    }
+
+    @KafkaListener(
+            id = "emailNormalLaneConsumer",
+            topics = "${kafka.topics.notification-created-channel}.normal",
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${kafka.listener.lanes.concurrency.normal:10}",
+            autoStartup = "${kafka.listener.lanes.enabled:false}"
+    )
+    public void handleNormalLane(NotificationEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long producedAt,
+                                 Acknowledgment ack) throws InterruptedException {
+        processInLane(PriorityLane.NORMAL, event, producedAt, ack);
+    }
+
+    @KafkaListener(
+            id = "emailLowLaneConsumer",
+            topics = "${kafka.topics.notification-created-channel}.low",
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${kafka.listener.lanes.concurrency.low:10}",
+            autoStartup = "${kafka.listener.lanes.enabled:false}"
+    )
+    public void handleLowLane(NotificationEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long producedAt,
+                              Acknowledgment ack) throws InterruptedException {
+        processInLane(PriorityLane.LOW, event, producedAt, ack);
+    }
+
+    private void processInLane(PriorityLane lane, NotificationEvent event, long producedAt, Acknowledgment ack)
+            throws InterruptedException {
+        laneGate.acquire(lane);
+        try {
+            metricsService.recordLaneLatency(lane.tag(), "queue", Duration.between(Instant.ofEpochMilli(producedAt), Instant.now()));
+            process(event, ack);
+        } finally {
+            laneGate.release();
+        }
+
+        if (event.getTimestamp() != null) {
+            metricsService.recordLaneLatency(lane.tag(), "end_to_end", Duration.between(event.getTimestamp(), LocalDateTime.now()));
+        }
+    }
+
+    private void process(NotificationEvent event, Acknowledgment ack) {
         log.info("Processing EMAIL notification: id={}, recipient={}", event.getNotificationId(), event.getRecipient());
 
         try {
@@ -45,4 +144,3 @@ public class EmailNotificationConsumer {
         }
     }
 }
-
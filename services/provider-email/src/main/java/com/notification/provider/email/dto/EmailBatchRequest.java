@@ -0,0 +1,13 @@
+package com.notification.provider.email.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailBatchRequest {
+    private List<EmailRequest> messages;
+}
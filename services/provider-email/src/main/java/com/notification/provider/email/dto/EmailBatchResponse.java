@@ -0,0 +1,16 @@
+package com.notification.provider.email.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Resposta do endpoint em lote: um resultado por mensagem, na mesma ordem do request
+ */
+@Getter
+@Setter
+public class EmailBatchResponse {
+    private String provider;
+    private List<EmailResponse> results;
+}
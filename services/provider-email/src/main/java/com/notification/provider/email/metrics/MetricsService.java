@@ -3,9 +3,11 @@ package com.notification.provider.email.metrics;
 import com.notification.provider.email.dto.Channel;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -15,10 +17,12 @@ public class MetricsService {
 
     private final MeterRegistry meterRegistry;
     private final Map<String, Counter> counterCache;
+    private final Map<String, Timer> timerCache;
 
     public MetricsService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
         this.counterCache = new ConcurrentHashMap<>();
+        this.timerCache = new ConcurrentHashMap<>();
         log.info("MetricsService initialized");
     }
 
@@ -36,6 +40,23 @@ public class MetricsService {
         log.debug("Metric incremented: notification_provider_fallback_total [primaryProvider={}, secondaryProvider={}]", primaryProvider, secondaryProvider);
     }
 
+    /**
+     * queue: do produce no Kafka até a vaga de envio; end_to_end: da criação do evento até o fim do envio
+     */
+    public void recordLaneLatency(String lane, String stage, Duration duration) {
+        Timer timer = timerCache.computeIfAbsent("notification_lane_latency_%s_%s".formatted(lane, stage), key ->
+                Timer.builder("notification_lane_latency")
+                        .description("Latência por faixa de prioridade: espera na fila e ponta a ponta")
+                        .tag("channel", "email")
+                        .tag("lane", lane)
+                        .tag("stage", stage)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry)
+        );
+
+        timer.record(duration);
+    }
+
     private String buildCacheKey(String primaryProvider, String secondaryProvider) {
         return "notification_provider_fallback_total_%s_%s".formatted(
                 normalize(primaryProvider),
@@ -3,6 +3,8 @@ package com.notification.provider.email.provider;
 import com.notification.provider.email.dto.EmailRequest;
 import com.notification.provider.email.dto.EmailResponse;
 
+import java.util.List;
+
 /**
  * Interface comum para providers externos de Email
  */
@@ -15,6 +17,13 @@ public interface ExternalEmailProvider {
      */
     EmailResponse send(EmailRequest request);
 
+    /**
+     * Envia um lote de emails em uma única chamada
+     * @param requests mensagens do lote
+     * @return um resultado por mensagem, na mesma ordem; falhas individuais vêm com success=false
+     */
+    List<EmailResponse> sendBatch(List<EmailRequest> requests);
+
     /**
      * Nome do provider (para logging e métricas)
      */
@@ -1,5 +1,7 @@
 package com.notification.provider.email.provider.impl;
 
+import com.notification.provider.email.dto.EmailBatchRequest;
+import com.notification.provider.email.dto.EmailBatchResponse;
 import com.notification.provider.email.dto.EmailRequest;
 import com.notification.provider.email.dto.EmailResponse;
 import com.notification.provider.email.provider.ExternalEmailProvider;
@@ -10,6 +12,8 @@ import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.util.List;
+
 /**
  * Provider secundário de Email (Amazon SES simulado)
  * Maior custo, usado apenas como fallback
@@ -20,9 +24,12 @@ public class AmazonSesEmailProvider implements ExternalEmailProvider {
 
     private final RestClient restClient;
     private final String providerUrl;
+    private final String batchUrl;
 
-    public AmazonSesEmailProvider(@Value("${email-provider.secondary.url}") String providerUrl) {
+    public AmazonSesEmailProvider(@Value("${email-provider.secondary.url}") String providerUrl,
+                                  @Value("${email-provider.secondary.batch-url}") String batchUrl) {
         this.providerUrl = providerUrl;
+        this.batchUrl = batchUrl;
 
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(10000);
@@ -56,6 +63,31 @@ public class AmazonSesEmailProvider implements ExternalEmailProvider {
         }
     }
 
+    @Override
+    public List<EmailResponse> sendBatch(List<EmailRequest> requests) {
+        log.info("[SECONDARY] Sending Email batch via Amazon SES: size={}", requests.size());
+
+        try {
+            EmailBatchResponse response = restClient.post()
+                    .uri(batchUrl)
+                    .header("Content-Type", "application/json")
+                    .body(new EmailBatchRequest(requests))
+                    .retrieve()
+                    .body(EmailBatchResponse.class);
+
+            if (response == null || response.getResults() == null || response.getResults().size() != requests.size()) {
+                throw new IllegalStateException("batch response does not match request size " + requests.size());
+            }
+
+            log.info("[SECONDARY] Email batch processed via Amazon SES: size={}", requests.size());
+            return response.getResults();
+
+        } catch (Exception e) {
+            log.error("[SECONDARY] Failed to send Email batch via Amazon SES: {}", e.getMessage());
+            throw new RuntimeException("Amazon SES provider batch failed: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public String getProviderName() {
         return "Amazon_SES";
@@ -1,5 +1,7 @@
 package com.notification.provider.email.provider.impl;
 
+import com.notification.provider.email.dto.EmailBatchRequest;
+import com.notification.provider.email.dto.EmailBatchResponse;
 import com.notification.provider.email.dto.EmailRequest;
 import com.notification.provider.email.dto.EmailResponse;
 import com.notification.provider.email.provider.ExternalEmailProvider;
@@ -10,6 +12,8 @@ import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.util.List;
+
 /**
  * Provider primário de Email (SendGrid simulado)
  * Menor custo, primeira opção
@@ -20,9 +24,12 @@ public class SendGridEmailProvider implements ExternalEmailProvider {
 
     private final RestClient restClient;
     private final String providerUrl;
+    private final String batchUrl;
 
-    public SendGridEmailProvider(@Value("${email-provider.primary.url}") String providerUrl) {
+    public SendGridEmailProvider(@Value("${email-provider.primary.url}") String providerUrl,
+                                 @Value("${email-provider.primary.batch-url}") String batchUrl) {
         this.providerUrl = providerUrl;
+        this.batchUrl = batchUrl;
 
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(10000);
@@ -56,6 +63,31 @@ public class SendGridEmailProvider implements ExternalEmailProvider {
         }
     }
 
+    @Override
+    public List<EmailResponse> sendBatch(List<EmailRequest> requests) {
+        log.info("[PRIMARY] Sending Email batch via SendGrid: size={}", requests.size());
+
+        try {
+            EmailBatchResponse response = restClient.post()
+                    .uri(batchUrl)
+                    .header("Content-Type", "application/json")
+                    .body(new EmailBatchRequest(requests))
+                    .retrieve()
+                    .body(EmailBatchResponse.class);
+
+            if (response == null || response.getResults() == null || response.getResults().size() != requests.size()) {
+                throw new IllegalStateException("batch response does not match request size " + requests.size());
+            }
+
+            log.info("[PRIMARY] Email batch processed via SendGrid: size={}", requests.size());
+            return response.getResults();
+
+        } catch (Exception e) {
+            log.error("[PRIMARY] Failed to send Email batch via SendGrid: {}", e.getMessage());
+            throw new RuntimeException("SendGrid provider batch failed: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public String getProviderName() {
         return "SendGrid";
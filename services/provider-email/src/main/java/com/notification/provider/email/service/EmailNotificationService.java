@@ -8,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -18,18 +20,29 @@ public class EmailNotificationService {
     public EmailResponse sendEmailNotification(NotificationEvent event) {
         log.info("Processing EMAIL notification: id={}", event.getNotificationId());
 
-        EmailRequest request = EmailRequest.builder()
+        try {
+            return emailProviderChain.send(toRequest(event));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to send email notification", e);
+        }
+    }
+
+    /**
+     * Envia pelo endpoint em massa dos providers.
+     * @return um resultado por evento, na mesma ordem; falhas vêm com success=false em vez de exceção
+     */
+    public List<EmailResponse> sendEmailNotifications(List<NotificationEvent> events) {
+        log.info("Processing EMAIL notification batch: size={}", events.size());
+        return emailProviderChain.sendBatch(events.stream().map(this::toRequest).toList());
+    }
+
+    private EmailRequest toRequest(NotificationEvent event) {
+        return EmailRequest.builder()
                 .email(event.getRecipient())
                 .title(event.getSubject())
                 .body(event.getContent())
                 .priority(event.getPriority())
                 .build();
-
-        try {
-            return emailProviderChain.send(request);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send email notification", e);
-        }
     }
 }
 
@@ -0,0 +1,91 @@
+package com.notification.provider.email.lane;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class PriorityLaneGateTest {
+
+    private static final int GRANTS = 100;
+    private static final int THREADS_PER_LANE = 3;
+
+    @Test
+    void shouldShareSlotsByWeightUnderContention() throws InterruptedException {
+        // Given
+        PriorityLaneGate gate = new PriorityLaneGate(1, 6, 3, 1, new SimpleMeterRegistry());
+        gate.acquire(PriorityLane.HIGH);
+
+        List<PriorityLane> grants = new ArrayList<>();
+        AtomicInteger granted = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (PriorityLane lane : PriorityLane.values()) {
+            for (int i = 0; i < THREADS_PER_LANE; i++) {
+                workers.add(Thread.ofPlatform().start(() -> work(gate, lane, grants, granted)));
+            }
+        }
+        awaitWaiting(gate);
+
+        // When
+        gate.release();
+        for (Thread worker : workers) {
+            worker.join(Duration.ofSeconds(10));
+        }
+
+        // Then
+        Map<PriorityLane, Integer> counts = new EnumMap<>(PriorityLane.class);
+        grants.forEach(lane -> counts.merge(lane, 1, Integer::sum));
+        assertEquals(GRANTS, grants.size());
+        assertEquals(60, counts.get(PriorityLane.HIGH));
+        assertEquals(30, counts.get(PriorityLane.NORMAL));
+        assertEquals(10, counts.get(PriorityLane.LOW));
+    }
+
+    @Test
+    void shouldGiveFullCapacityToSingleLaneWithoutContention() {
+        // Given
+        PriorityLaneGate gate = new PriorityLaneGate(5, 6, 3, 1, new SimpleMeterRegistry());
+
+        // When / Then
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 5; i++) {
+                gate.acquire(PriorityLane.LOW);
+            }
+        });
+    }
+
+    private static void work(PriorityLaneGate gate, PriorityLane lane, List<PriorityLane> grants, AtomicInteger granted) {
+        try {
+            while (true) {
+                gate.acquire(lane);
+                try {
+                    // Capacidade 1: só uma thread por vez chega aqui, na ordem das concessões
+                    if (granted.getAndIncrement() >= GRANTS) {
+                        return;
+                    }
+                    grants.add(lane);
+                } finally {
+                    gate.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitWaiting(PriorityLaneGate gate) throws InterruptedException {
+        for (PriorityLane lane : PriorityLane.values()) {
+            while (gate.waiting(lane) < THREADS_PER_LANE) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
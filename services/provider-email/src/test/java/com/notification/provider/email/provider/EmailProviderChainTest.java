@@ -0,0 +1,113 @@
+package com.notification.provider.email.provider;
+
+import com.notification.provider.email.dto.EmailRequest;
+import com.notification.provider.email.dto.EmailResponse;
+import com.notification.provider.email.metrics.MetricsService;
+import com.notification.provider.email.provider.impl.AmazonSesEmailProvider;
+import com.notification.provider.email.provider.impl.SendGridEmailProvider;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailProviderChainTest {
+
+    private final List<List<String>> primaryCalls = new ArrayList<>();
+    private final List<List<String>> secondaryCalls = new ArrayList<>();
+
+    private Set<String> primaryRejects;
+    private boolean primaryDown;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailProviderChain chain;
+
+    @BeforeEach
+    void setUp() {
+        primaryRejects = Set.of();
+        primaryDown = false;
+        meterRegistry = new SimpleMeterRegistry();
+
+        SendGridEmailProvider primary = new SendGridEmailProvider("http://primary", "http://primary/batch") {
+            @Override
+            public List<EmailResponse> sendBatch(List<EmailRequest> requests) {
+                primaryCalls.add(requests.stream().map(EmailRequest::getEmail).toList());
+                if (primaryDown) {
+                    throw new RuntimeException("primary down");
+                }
+                return requests.stream().map(r -> response("SendGrid", !primaryRejects.contains(r.getEmail()))).toList();
+            }
+        };
+        AmazonSesEmailProvider secondary = new AmazonSesEmailProvider("http://secondary", "http://secondary/batch") {
+            @Override
+            public List<EmailResponse> sendBatch(List<EmailRequest> requests) {
+                secondaryCalls.add(requests.stream().map(EmailRequest::getEmail).toList());
+                return requests.stream().map(r -> response("Amazon_SES", true)).toList();
+            }
+        };
+
+        chain = new EmailProviderChain(primary, secondary, CircuitBreakerRegistry.ofDefaults(), new MetricsService(meterRegistry));
+    }
+
+    @Test
+    void shouldSendWholeBatchInOneCallToPrimary() {
+        // When
+        List<EmailResponse> results = chain.sendBatch(requests("a@x.com1", "a@x.com2", "a@x.com3"));
+
+        // Then
+        assertEquals(List.of(List.of("a@x.com1", "a@x.com2", "a@x.com3")), primaryCalls);
+        assertTrue(secondaryCalls.isEmpty());
+        assertTrue(results.stream().allMatch(EmailResponse::isSuccess));
+    }
+
+    @Test
+    void shouldFallBackOnlyItemsRejectedByPrimaryKeepingOrder() {
+        // Given
+        primaryRejects = Set.of("a@x.com2");
+
+        // When
+        List<EmailResponse> results = chain.sendBatch(requests("a@x.com1", "a@x.com2", "a@x.com3"));
+
+        // Then
+        assertEquals(List.of(List.of("a@x.com2")), secondaryCalls);
+        assertEquals(List.of("SendGrid", "Amazon_SES", "SendGrid"), results.stream().map(EmailResponse::getProvider).toList());
+        assertTrue(results.stream().allMatch(EmailResponse::isSuccess));
+        assertEquals(1.0, meterRegistry.get("notification_provider_fallback_total").counter().count());
+    }
+
+    @Test
+    void shouldFallBackWholeBatchWhenPrimaryCallFails() {
+        // Given
+        primaryDown = true;
+
+        // When
+        List<EmailResponse> results = chain.sendBatch(requests("a@x.com1", "a@x.com2"));
+
+        // Then
+        assertEquals(List.of(List.of("a@x.com1", "a@x.com2")), secondaryCalls);
+        assertTrue(results.stream().allMatch(EmailResponse::isSuccess));
+        assertFalse(results.stream().anyMatch(r -> "SendGrid".equals(r.getProvider())));
+    }
+
+    private static List<EmailRequest> requests(String... emails) {
+        List<EmailRequest> requests = new ArrayList<>();
+        for (String value : emails) {
+            requests.add(EmailRequest.builder().email(value).title("title").body("body").priority("NORMAL").build());
+        }
+        return requests;
+    }
+
+    private static EmailResponse response(String provider, boolean success) {
+        EmailResponse response = new EmailResponse();
+        response.setSuccess(success);
+        response.setProvider(provider);
+        response.setError(success ? null : "rejected");
+        return response;
+    }
+}
@@ -0,0 +1,13 @@
+package com.notification.provider.push.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushBatchRequest {
+    private List<PushRequest> messages;
+}
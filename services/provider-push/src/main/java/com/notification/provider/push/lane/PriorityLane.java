@@ -0,0 +1,14 @@
+package com.notification.provider.push.lane;
+
+/**
+ * Faixas de prioridade publicadas pelo notification-core em notification.created.push.{high|normal|low}
+ */
+public enum PriorityLane {
+    HIGH,
+    NORMAL,
+    LOW;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
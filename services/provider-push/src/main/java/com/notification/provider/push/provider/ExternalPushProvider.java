@@ -3,6 +3,8 @@ package com.notification.provider.push.provider;
 import com.notification.provider.push.dto.PushRequest;
 import com.notification.provider.push.dto.PushResponse;
 
+import java.util.List;
+
 /**
  * Interface comum para providers externos de Push
  */
@@ -15,6 +17,13 @@ public interface ExternalPushProvider {
      */
     PushResponse send(PushRequest request);
 
+    /**
+     * Envia um lote de push notifications em uma única chamada
+     * @param requests mensagens do lote
+     * @return um resultado por mensagem, na mesma ordem; falhas individuais vêm com success=false
+     */
+    List<PushResponse> sendBatch(List<PushRequest> requests);
+
     /**
      * Nome do provider (para logging e métricas)
      */
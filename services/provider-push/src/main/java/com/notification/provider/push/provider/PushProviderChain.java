@@ -10,7 +10,12 @@ import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Component
@@ -70,6 +75,101 @@ public class PushProviderChain {
         }
     }
 
+    /**
+     * Envia um lote pelo endpoint em massa dos providers. Cada item conta como uma chamada no
+     * circuit breaker; itens recusados ou com falha no primário seguem para o secundário.
+     * @return um resultado por request, na mesma ordem
+     */
+    public List<PushResponse> sendBatch(List<PushRequest> requests) {
+        log.info("Starting Push provider chain for batch: size={}", requests.size());
+
+        PushResponse[] results = new PushResponse[requests.size()];
+        List<Integer> all = IntStream.range(0, requests.size()).boxed().toList();
+
+        List<Integer> failedOnPrimary = sendBatchWithCircuitBreaker(primaryCircuitBreaker, primaryProvider, requests, all, results);
+        if (failedOnPrimary.isEmpty()) {
+            log.info("✅ Push batch sent successfully via PRIMARY provider");
+            return Arrays.asList(results);
+        }
+
+        log.warn("⚠️ PRIMARY provider failed for {} of {} notifications. Falling back to SECONDARY...",
+                failedOnPrimary.size(), requests.size());
+        List<Integer> failed = sendBatchWithCircuitBreaker(secondaryCircuitBreaker, secondaryProvider, requests, failedOnPrimary, results);
+
+        for (int i = 0; i < failedOnPrimary.size() - failed.size(); i++) {
+            metricsService.incrementFallback(primaryProvider.getProviderName(), secondaryProvider.getProviderName());
+        }
+        if (!failed.isEmpty()) {
+            log.error("❌ SECONDARY provider also failed for {} notifications", failed.size());
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Envia os itens com permissão do circuit breaker e registra sucesso/erro item a item.
+     * @return índices que não foram entregues (sem permissão ou com falha)
+     */
+    private List<Integer> sendBatchWithCircuitBreaker(CircuitBreaker circuitBreaker, ExternalPushProvider provider,
+                                                      List<PushRequest> requests, List<Integer> indices,
+                                                      PushResponse[] results) {
+        List<Integer> permitted = new ArrayList<>(indices.size());
+        List<Integer> failed = new ArrayList<>();
+
+        for (int i : indices) {
+            if (circuitBreaker.tryAcquirePermission()) {
+                permitted.add(i);
+            } else {
+                failed.add(i);
+                results[i] = failure(provider, "Circuit breaker " + circuitBreaker.getName() + " is " + circuitBreaker.getState());
+            }
+        }
+
+        if (permitted.isEmpty()) {
+            return failed;
+        }
+
+        long start = System.nanoTime();
+        try {
+            List<PushResponse> responses = provider.sendBatch(permitted.stream().map(requests::get).toList());
+            long duration = System.nanoTime() - start;
+
+            for (int j = 0; j < permitted.size(); j++) {
+                int i = permitted.get(j);
+                PushResponse response = responses.get(j);
+
+                if (response != null && response.isSuccess()) {
+                    circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+                    results[i] = response;
+                } else {
+                    String error = response != null ? response.getError() : "empty result";
+                    circuitBreaker.onError(duration, TimeUnit.NANOSECONDS,
+                            new RuntimeException(provider.getProviderName() + " rejected notification: " + error));
+                    results[i] = response != null ? response : failure(provider, error);
+                    failed.add(i);
+                }
+            }
+        } catch (Exception e) {
+            long duration = System.nanoTime() - start;
+            for (int i : permitted) {
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, e);
+                results[i] = failure(provider, e.getMessage());
+            }
+            failed.addAll(permitted);
+        }
+
+        failed.sort(null);
+        return failed;
+    }
+
+    private PushResponse failure(ExternalPushProvider provider, String error) {
+        PushResponse response = new PushResponse();
+        response.setSuccess(false);
+        response.setProvider(provider.getProviderName());
+        response.setError(error);
+        return response;
+    }
+
     private PushResponse executeWithCircuitBreaker(CircuitBreaker circuitBreaker, Supplier<PushResponse> operation) {
         return CircuitBreaker.decorateSupplier(circuitBreaker, operation).get();
     }
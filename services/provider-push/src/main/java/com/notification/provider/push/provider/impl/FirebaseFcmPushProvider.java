@@ -1,5 +1,7 @@
 package com.notification.provider.push.provider.impl;
 
+import com.notification.provider.push.dto.PushBatchRequest;
+import com.notification.provider.push.dto.PushBatchResponse;
 import com.notification.provider.push.dto.PushRequest;
 import com.notification.provider.push.dto.PushResponse;
 import com.notification.provider.push.provider.ExternalPushProvider;
@@ -10,6 +12,8 @@ import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.util.List;
+
 /**
  * Provider primário de Push (Firebase FCM simulado)
  * Menor custo, primeira opção
@@ -20,9 +24,12 @@ public class FirebaseFcmPushProvider implements ExternalPushProvider {
 
     private final RestClient restClient;
     private final String providerUrl;
+    private final String batchUrl;
 
-    public FirebaseFcmPushProvider(@Value("${push-provider.primary.url}") String providerUrl) {
+    public FirebaseFcmPushProvider(@Value("${push-provider.primary.url}") String providerUrl,
+                                       @Value("${push-provider.primary.batch-url}") String batchUrl) {
         this.providerUrl = providerUrl;
+        this.batchUrl = batchUrl;
 
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(10000);
@@ -56,6 +63,31 @@ public class FirebaseFcmPushProvider implements ExternalPushProvider {
         }
     }
 
+    @Override
+    public List<PushResponse> sendBatch(List<PushRequest> requests) {
+        log.info("[PRIMARY] Sending Push batch via Firebase FCM: size={}", requests.size());
+
+        try {
+            PushBatchResponse response = restClient.post()
+                    .uri(batchUrl)
+                    .header("Content-Type", "application/json")
+                    .body(new PushBatchRequest(requests))
+                    .retrieve()
+                    .body(PushBatchResponse.class);
+
+            if (response == null || response.getResults() == null || response.getResults().size() != requests.size()) {
+                throw new IllegalStateException("batch response does not match request size " + requests.size());
+            }
+
+            log.info("[PRIMARY] Push batch processed via Firebase FCM: size={}", requests.size());
+            return response.getResults();
+
+        } catch (Exception e) {
+            log.error("[PRIMARY] Failed to send Push batch via Firebase FCM: {}", e.getMessage());
+            throw new RuntimeException("Firebase FCM provider batch failed: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public String getProviderName() {
         return "Firebase_FCM";
@@ -0,0 +1,113 @@
+package com.notification.provider.push.provider;
+
+import com.notification.provider.push.dto.PushRequest;
+import com.notification.provider.push.dto.PushResponse;
+import com.notification.provider.push.metrics.MetricsService;
+import com.notification.provider.push.provider.impl.OneSignalPushProvider;
+import com.notification.provider.push.provider.impl.FirebaseFcmPushProvider;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PushProviderChainTest {
+
+    private final List<List<String>> primaryCalls = new ArrayList<>();
+    private final List<List<String>> secondaryCalls = new ArrayList<>();
+
+    private Set<String> primaryRejects;
+    private boolean primaryDown;
+    private SimpleMeterRegistry meterRegistry;
+    private PushProviderChain chain;
+
+    @BeforeEach
+    void setUp() {
+        primaryRejects = Set.of();
+        primaryDown = false;
+        meterRegistry = new SimpleMeterRegistry();
+
+        FirebaseFcmPushProvider primary = new FirebaseFcmPushProvider("http://primary", "http://primary/batch") {
+            @Override
+            public List<PushResponse> sendBatch(List<PushRequest> requests) {
+                primaryCalls.add(requests.stream().map(PushRequest::getDeviceToken).toList());
+                if (primaryDown) {
+                    throw new RuntimeException("primary down");
+                }
+                return requests.stream().map(r -> response("Firebase_FCM", !primaryRejects.contains(r.getDeviceToken()))).toList();
+            }
+        };
+        OneSignalPushProvider secondary = new OneSignalPushProvider("http://secondary", "http://secondary/batch") {
+            @Override
+            public List<PushResponse> sendBatch(List<PushRequest> requests) {
+                secondaryCalls.add(requests.stream().map(PushRequest::getDeviceToken).toList());
+                return requests.stream().map(r -> response("OneSignal", true)).toList();
+            }
+        };
+
+        chain = new PushProviderChain(primary, secondary, CircuitBreakerRegistry.ofDefaults(), new MetricsService(meterRegistry));
+    }
+
+    @Test
+    void shouldSendWholeBatchInOneCallToPrimary() {
+        // When
+        List<PushResponse> results = chain.sendBatch(requests("token-1", "token-2", "token-3"));
+
+        // Then
+        assertEquals(List.of(List.of("token-1", "token-2", "token-3")), primaryCalls);
+        assertTrue(secondaryCalls.isEmpty());
+        assertTrue(results.stream().allMatch(PushResponse::isSuccess));
+    }
+
+    @Test
+    void shouldFallBackOnlyItemsRejectedByPrimaryKeepingOrder() {
+        // Given
+        primaryRejects = Set.of("token-2");
+
+        // When
+        List<PushResponse> results = chain.sendBatch(requests("token-1", "token-2", "token-3"));
+
+        // Then
+        assertEquals(List.of(List.of("token-2")), secondaryCalls);
+        assertEquals(List.of("Firebase_FCM", "OneSignal", "Firebase_FCM"), results.stream().map(PushResponse::getProvider).toList());
+        assertTrue(results.stream().allMatch(PushResponse::isSuccess));
+        assertEquals(1.0, meterRegistry.get("notification_provider_fallback_total").counter().count());
+    }
+
+    @Test
+    void shouldFallBackWholeBatchWhenPrimaryCallFails() {
+        // Given
+        primaryDown = true;
+
+        // When
+        List<PushResponse> results = chain.sendBatch(requests("token-1", "token-2"));
+
+        // Then
+        assertEquals(List.of(List.of("token-1", "token-2")), secondaryCalls);
+        assertTrue(results.stream().allMatch(PushResponse::isSuccess));
+        assertFalse(results.stream().anyMatch(r -> "Firebase_FCM".equals(r.getProvider())));
+    }
+
+    private static List<PushRequest> requests(String... deviceTokens) {
+        List<PushRequest> requests = new ArrayList<>();
+        for (String value : deviceTokens) {
+            requests.add(PushRequest.builder().deviceToken(value).title("title").body("body").priority("NORMAL").build());
+        }
+        return requests;
+    }
+
+    private static PushResponse response(String provider, boolean success) {
+        PushResponse response = new PushResponse();
+        response.setSuccess(success);
+        response.setProvider(provider);
+        response.setError(success ? null : "rejected");
+        return response;
+    }
+}
@@ -0,0 +1,13 @@
+package com.notification.provider.sms.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmsBatchRequest {
+    private List<SmsRequest> messages;
+}
@@ -0,0 +1,14 @@
+package com.notification.provider.sms.lane;
+
+/**
+ * Faixas de prioridade publicadas pelo notification-core em notification.created.sms.{high|normal|low}
+ */
+public enum PriorityLane {
+    HIGH,
+    NORMAL,
+    LOW;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,103 @@
+package com.notification.provider.sms.lane;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limita os envios simultâneos das faixas de prioridade (kafka.listener.lanes.max-in-flight) e,
+ * quando há disputa, entrega a próxima vaga por smooth weighted round-robin entre as faixas com
+ * listeners esperando. HIGH é drenada primeiro, mas LOW sempre recebe sua fração (peso) das vagas.
+ * Sem disputa, qualquer faixa usa toda a capacidade.
+ */
+@Slf4j
+@Component
+public class PriorityLaneGate {
+
+    private final int[] weights = new int[PriorityLane.values().length];
+    private final int[] currentWeights = new int[PriorityLane.values().length];
+    private final int[] waiting = new int[PriorityLane.values().length];
+
+    private int available;
+    private PriorityLane granted;
+
+    public PriorityLaneGate(@Value("${kafka.listener.lanes.max-in-flight:20}") int maxInFlight,
+                            @Value("${kafka.listener.lanes.weights.high:6}") int highWeight,
+                            @Value("${kafka.listener.lanes.weights.normal:3}") int normalWeight,
+                            @Value("${kafka.listener.lanes.weights.low:1}") int lowWeight,
+                            MeterRegistry meterRegistry) {
+        this.available = maxInFlight;
+        this.weights[PriorityLane.HIGH.ordinal()] = highWeight;
+        this.weights[PriorityLane.NORMAL.ordinal()] = normalWeight;
+        this.weights[PriorityLane.LOW.ordinal()] = lowWeight;
+
+        for (PriorityLane lane : PriorityLane.values()) {
+            Gauge.builder("notification_lane_waiting", this, gate -> gate.waiting(lane))
+                    .description("Listeners aguardando vaga de envio, por faixa de prioridade")
+                    .tag("channel", "sms")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    public synchronized void acquire(PriorityLane lane) throws InterruptedException {
+        waiting[lane.ordinal()]++;
+        try {
+            while (true) {
+                if (available > 0 && granted == null) {
+                    granted = next();
+                    notifyAll();
+                }
+                if (granted == lane) {
+                    granted = null;
+                    available--;
+                    if (available > 0) {
+                        notifyAll();
+                    }
+                    return;
+                }
+                wait();
+            }
+        } finally {
+            waiting[lane.ordinal()]--;
+            // A vaga escolhida para esta faixa não pode ficar presa se ninguém mais espera nela
+            if (granted == lane && waiting[lane.ordinal()] == 0) {
+                granted = null;
+                notifyAll();
+            }
+        }
+    }
+
+    public synchronized void release() {
+        available++;
+        notifyAll();
+    }
+
+    synchronized int waiting(PriorityLane lane) {
+        return waiting[lane.ordinal()];
+    }
+
+    /**
+     * Smooth weighted round-robin (como no nginx) restrito às faixas com alguém esperando
+     */
+    private PriorityLane next() {
+        int total = 0;
+        int best = -1;
+
+        for (int i = 0; i < weights.length; i++) {
+            if (waiting[i] == 0) {
+                continue;
+            }
+            currentWeights[i] += weights[i];
+            total += weights[i];
+            if (best < 0 || currentWeights[i] > currentWeights[best]) {
+                best = i;
+            }
+        }
+
+        currentWeights[best] -= total;
+        return PriorityLane.values()[best];
+    }
+}
@@ -3,6 +3,8 @@ package com.notification.provider.sms.provider;
 import com.notification.provider.sms.dto.SmsRequest;
 import com.notification.provider.sms.dto.SmsResponse;
 
+import java.util.List;
+
 /**
  * Interface comum para providers externos de SMS
  */
@@ -15,6 +17,13 @@ public interface ExternalSmsProvider {
      */
     SmsResponse send(SmsRequest request);
 
+    /**
+     * Envia um lote de SMS em uma única chamada
+     * @param requests mensagens do lote
+     * @return um resultado por mensagem, na mesma ordem; falhas individuais vêm com success=false
+     */
+    List<SmsResponse> sendBatch(List<SmsRequest> requests);
+
     /**
      * Nome do provider (para logging e métricas)
      */
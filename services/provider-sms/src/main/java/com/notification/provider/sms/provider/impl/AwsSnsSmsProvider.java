@@ -1,5 +1,7 @@
 package com.notification.provider.sms.provider.impl;
 
+import com.notification.provider.sms.dto.SmsBatchRequest;
+import com.notification.provider.sms.dto.SmsBatchResponse;
 import com.notification.provider.sms.dto.SmsRequest;
 import com.notification.provider.sms.dto.SmsResponse;
 import com.notification.provider.sms.provider.ExternalSmsProvider;
@@ -10,6 +12,8 @@ import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.util.List;
+
 /**
  * Provider secundário de SMS (AWS SNS simulado)
  * Maior custo, usado apenas como fallback
@@ -20,9 +24,12 @@ public class AwsSnsSmsProvider implements ExternalSmsProvider {
 
     private final RestClient restClient;
     private final String providerUrl;
+    private final String batchUrl;
 
-    public AwsSnsSmsProvider(@Value("${sms-provider.secondary.url}") String providerUrl) {
+    public AwsSnsSmsProvider(@Value("${sms-provider.secondary.url}") String providerUrl,
+                                 @Value("${sms-provider.secondary.batch-url}") String batchUrl) {
         this.providerUrl = providerUrl;
+        this.batchUrl = batchUrl;
 
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(10000);
@@ -55,6 +62,31 @@ public class AwsSnsSmsProvider implements ExternalSmsProvider {
         }
     }
 
+    @Override
+    public List<SmsResponse> sendBatch(List<SmsRequest> requests) {
+        log.info("[SECONDARY] Sending SMS batch via AWS SNS: size={}", requests.size());
+
+        try {
+            SmsBatchResponse response = restClient.post()
+                    .uri(batchUrl)
+                    .header("Content-Type", "application/json")
+                    .body(new SmsBatchRequest(requests))
+                    .retrieve()
+                    .body(SmsBatchResponse.class);
+
+            if (response == null || response.getResults() == null || response.getResults().size() != requests.size()) {
+                throw new IllegalStateException("batch response does not match request size " + requests.size());
+            }
+
+            log.info("[SECONDARY] SMS batch processed via AWS SNS: size={}", requests.size());
+            return response.getResults();
+
+        } catch (Exception e) {
+            log.error("[SECONDARY] Failed to send SMS batch via AWS SNS: {}", e.getMessage());
+            throw new RuntimeException("AWS SNS provider batch failed: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public String getProviderName() {
         return "AWS_SNS";
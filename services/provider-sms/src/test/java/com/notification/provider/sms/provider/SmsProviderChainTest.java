@@ -0,0 +1,113 @@
+package com.notification.provider.sms.provider;
+
+import com.notification.provider.sms.dto.SmsRequest;
+import com.notification.provider.sms.dto.SmsResponse;
+import com.notification.provider.sms.metrics.MetricsService;
+import com.notification.provider.sms.provider.impl.AwsSnsSmsProvider;
+import com.notification.provider.sms.provider.impl.TwilioSmsProvider;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmsProviderChainTest {
+
+    private final List<List<String>> primaryCalls = new ArrayList<>();
+    private final List<List<String>> secondaryCalls = new ArrayList<>();
+
+    private Set<String> primaryRejects;
+    private boolean primaryDown;
+    private SimpleMeterRegistry meterRegistry;
+    private SmsProviderChain chain;
+
+    @BeforeEach
+    void setUp() {
+        primaryRejects = Set.of();
+        primaryDown = false;
+        meterRegistry = new SimpleMeterRegistry();
+
+        TwilioSmsProvider primary = new TwilioSmsProvider("http://primary", "http://primary/batch") {
+            @Override
+            public List<SmsResponse> sendBatch(List<SmsRequest> requests) {
+                primaryCalls.add(requests.stream().map(SmsRequest::getNumber).toList());
+                if (primaryDown) {
+                    throw new RuntimeException("primary down");
+                }
+                return requests.stream().map(r -> response("Twilio", !primaryRejects.contains(r.getNumber()))).toList();
+            }
+        };
+        AwsSnsSmsProvider secondary = new AwsSnsSmsProvider("http://secondary", "http://secondary/batch") {
+            @Override
+            public List<SmsResponse> sendBatch(List<SmsRequest> requests) {
+                secondaryCalls.add(requests.stream().map(SmsRequest::getNumber).toList());
+                return requests.stream().map(r -> response("AWS_SNS", true)).toList();
+            }
+        };
+
+        chain = new SmsProviderChain(primary, secondary, CircuitBreakerRegistry.ofDefaults(), new MetricsService(meterRegistry));
+    }
+
+    @Test
+    void shouldSendWholeBatchInOneCallToPrimary() {
+        // When
+        List<SmsResponse> results = chain.sendBatch(requests("+55111", "+55112", "+55113"));
+
+        // Then
+        assertEquals(List.of(List.of("+55111", "+55112", "+55113")), primaryCalls);
+        assertTrue(secondaryCalls.isEmpty());
+        assertTrue(results.stream().allMatch(SmsResponse::isSuccess));
+    }
+
+    @Test
+    void shouldFallBackOnlyItemsRejectedByPrimaryKeepingOrder() {
+        // Given
+        primaryRejects = Set.of("+55112");
+
+        // When
+        List<SmsResponse> results = chain.sendBatch(requests("+55111", "+55112", "+55113"));
+
+        // Then
+        assertEquals(List.of(List.of("+55112")), secondaryCalls);
+        assertEquals(List.of("Twilio", "AWS_SNS", "Twilio"), results.stream().map(SmsResponse::getProvider).toList());
+        assertTrue(results.stream().allMatch(SmsResponse::isSuccess));
+        assertEquals(1.0, meterRegistry.get("notification_provider_fallback_total").counter().count());
+    }
+
+    @Test
+    void shouldFallBackWholeBatchWhenPrimaryCallFails() {
+        // Given
+        primaryDown = true;
+
+        // When
+        List<SmsResponse> results = chain.sendBatch(requests("+55111", "+55112"));
+
+        // Then
+        assertEquals(List.of(List.of("+55111", "+55112")), secondaryCalls);
+        assertTrue(results.stream().allMatch(SmsResponse::isSuccess));
+        assertFalse(results.stream().anyMatch(r -> "Twilio".equals(r.getProvider())));
+    }
+
+    private static List<SmsRequest> requests(String... numbers) {
+        List<SmsRequest> requests = new ArrayList<>();
+        for (String value : numbers) {
+            requests.add(SmsRequest.builder().number(value).title("title").body("body").priority("NORMAL").build());
+        }
+        return requests;
+    }
+
+    private static SmsResponse response(String provider, boolean success) {
+        SmsResponse response = new SmsResponse();
+        response.setSuccess(success);
+        response.setProvider(provider);
+        response.setError(success ? null : "rejected");
+        return response;
+    }
+}
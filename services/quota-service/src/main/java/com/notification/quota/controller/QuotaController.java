@@ -1,5 +1,7 @@
 package com.notification.quota.controller;
 
+import com.notification.quota.dto.QuotaLeaseRequest;
+import com.notification.quota.dto.QuotaLeaseResponse;
 import com.notification.quota.dto.QuotaValidationRequest;
 import com.notification.quota.dto.QuotaValidationResponse;
 import com.notification.quota.dto.QuotaResponse;
@@ -47,6 +49,15 @@ public class QuotaController {
                 : ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
     }
 
+    @PostMapping("/leases")
+    @Operation(summary = "Grant quota lease", description = "Reserves a block of up to the requested units to be handed out by the caller; unused units are returned through /release")
+    public ResponseEntity<QuotaLeaseResponse> grantLease(@Valid @RequestBody QuotaLeaseRequest request) {
+        log.info("Quota lease request received: clientId={}, channel={}, requested={}, leaseId={}",
+                request.getClientId(), request.getChannel(), request.getRequested(), request.getLeaseId());
+
+        return ResponseEntity.ok(quotaValidationService.grantLease(request));
+    }
+
     @PostMapping("/check")
     @Operation(summary = "Check quota availability", description = "Checks if quota is available without consuming")
     public ResponseEntity<QuotaValidationResponse> checkQuota(@Valid @RequestBody QuotaValidationRequest request) {
@@ -0,0 +1,29 @@
+package com.notification.quota.dto;
+
+import com.notification.quota.model.Channel;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuotaLeaseRequest {
+
+    @NotBlank(message = "Client ID is required")
+    private String clientId;
+
+    @NotNull(message = "Channel is required")
+    private Channel channel;
+
+    @NotNull(message = "Requested amount is required")
+    @Positive(message = "Requested amount must be positive")
+    private Long requested;
+
+    @NotBlank(message = "Lease ID is required")
+    private String leaseId;
+
+}
@@ -0,0 +1,26 @@
+package com.notification.quota.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuotaLeaseResponse {
+
+    private String leaseId;
+    private Long requested;
+    private Long granted;
+    private Long availableQuota;
+
+    public static QuotaLeaseResponse of(String leaseId, Long requested, Long granted, Long availableQuota) {
+        return QuotaLeaseResponse.builder()
+                .leaseId(leaseId)
+                .requested(requested)
+                .granted(granted)
+                .availableQuota(availableQuota)
+                .build();
+    }
+
+}
@@ -43,6 +43,12 @@ public class Quota {
     @Column(nullable = false)
     private Boolean active;
 
+    /**
+     * Trocado a cada reset; deltas do modo redis gravados sob um epoch anterior não são aplicados na linha.
+     */
+    @Column(nullable = false)
+    private Long epoch;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,13 +1,16 @@
 package com.notification.quota.repository;
 
 import com.notification.quota.model.Channel;
+import com.notification.quota.service.QuotaMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -20,14 +23,120 @@ public class QuotaCacheRepository {
     @Value("${quota.cache.ttl:3600}")
     private Long cacheTtl;
 
+    @Value("${quota.mode:database}")
+    private QuotaMode mode;
+
     private static final String QUOTA_KEY_PREFIX = "quota:";
 
+    public static final long KEY_MISSING = -2;
+    public static final long INSUFFICIENT = -1;
+
+    /**
+     * Check-and-decrement atômico: {status, saldo, epoch}. status = 1 consumiu, -1 saldo insuficiente, -2 chave ausente.
+     * O epoch (0 se a chave de epoch não existir) acompanha o saldo para o reconciler descartar consumo de antes de um reset.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CONSUME_SCRIPT = RedisScript.of("""
+            local current = redis.call('GET', KEYS[1])
+            local epoch = tonumber(redis.call('GET', KEYS[2]) or '0')
+            if not current then
+                return {-2, 0, epoch}
+            end
+            local available = tonumber(current)
+            local amount = tonumber(ARGV[1])
+            if available < amount then
+                return {-1, available, epoch}
+            end
+            return {1, redis.call('DECRBY', KEYS[1], amount), epoch}
+            """, List.class);
+
+    /**
+     * Reserva parcial atômica: {status, concedido, saldo, epoch}. Concede min(saldo, pedido); status -1 se o saldo for zero.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CONSUME_UP_TO_SCRIPT = RedisScript.of("""
+            local current = redis.call('GET', KEYS[1])
+            local epoch = tonumber(redis.call('GET', KEYS[2]) or '0')
+            if not current then
+                return {-2, 0, 0, epoch}
+            end
+            local available = tonumber(current)
+            local granted = math.min(available, tonumber(ARGV[1]))
+            if granted <= 0 then
+                return {-1, 0, available, epoch}
+            end
+            return {1, granted, redis.call('DECRBY', KEYS[1], granted), epoch}
+            """, List.class);
+
+    /**
+     * Devolução atômica: {saldo, epoch}, saldo -2 se a chave não estava carregada.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RELEASE_SCRIPT = RedisScript.of("""
+            local epoch = tonumber(redis.call('GET', KEYS[2]) or '0')
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return {-2, epoch}
+            end
+            return {redis.call('INCRBY', KEYS[1], ARGV[1]), epoch}
+            """, List.class);
+
+    /**
+     * Carga do saldo autoritativo: SET NX do saldo e, só se carregou, o epoch da linha lida.
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = RedisScript.of("""
+            if redis.call('SET', KEYS[1], ARGV[1], 'NX') then
+                redis.call('SET', KEYS[2], ARGV[2])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * Sobrescreve saldo e epoch juntos (criação e reset no modo redis).
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of("""
+            redis.call('SET', KEYS[1], ARGV[1])
+            redis.call('SET', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * Soma uma mudança de limite apenas se a chave existir; sem chave, o próximo load lê o saldo já reconciliado do banco.
+     */
+    private static final RedisScript<Long> ADJUST_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -2
+            end
+            return redis.call('INCRBY', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    /**
+     * No modo redis a chave é a fonte da verdade do saldo e não expira: um reload a partir do banco só desconta o
+     * consumo pendente desta instância, então uma expiração deixaria o cliente gastar o que outras instâncias ainda
+     * não reconciliaram. No modo database é cache comum, com quota.cache.ttl.
+     */
     public void saveAvailableQuota(String clientId, Channel channel, Long availableQuota) {
         String key = buildKey(clientId, channel);
-        redisTemplate.opsForValue().set(key, availableQuota, Duration.ofSeconds(cacheTtl));
+        if (mode == QuotaMode.REDIS) {
+            redisTemplate.opsForValue().set(key, availableQuota);
+        } else {
+            redisTemplate.opsForValue().set(key, availableQuota, Duration.ofSeconds(cacheTtl));
+        }
         log.debug("Cached quota for clientId={}, channel={}, available={}", clientId, channel, availableQuota);
     }
 
+    /**
+     * Como {@link #saveAvailableQuota(String, Channel, Long)}, gravando também o epoch da linha no modo redis.
+     */
+    public void saveAvailableQuota(String clientId, Channel channel, Long availableQuota, Long epoch) {
+        if (mode != QuotaMode.REDIS) {
+            saveAvailableQuota(clientId, channel, availableQuota);
+            return;
+        }
+        redisTemplate.execute(SAVE_SCRIPT, keys(clientId, channel), availableQuota, epoch);
+        log.debug("Cached quota for clientId={}, channel={}, available={}, epoch={}", clientId, channel, availableQuota, epoch);
+    }
+
     public Optional<Long> getAvailableQuota(String clientId, Channel channel) {
         String key = buildKey(clientId, channel);
         Object value = redisTemplate.opsForValue().get(key);
@@ -55,9 +164,60 @@ public class QuotaCacheRepository {
                 clientId, channel, amount, result);
     }
 
+    /**
+     * @return {status, saldo, epoch} conforme {@link #CONSUME_SCRIPT}
+     */
+    @SuppressWarnings("unchecked")
+    public long[] tryConsume(String clientId, Channel channel, Long amount) {
+        List<Long> result = redisTemplate.execute(CONSUME_SCRIPT, keys(clientId, channel), amount);
+        log.debug("Atomic quota consume for clientId={}, channel={}, amount={}, result={}", clientId, channel, amount, result);
+        return new long[]{result.get(0), result.get(1), result.get(2)};
+    }
+
+    /**
+     * @return {status, concedido, saldo, epoch} conforme {@link #CONSUME_UP_TO_SCRIPT}
+     */
+    @SuppressWarnings("unchecked")
+    public long[] tryConsumeUpTo(String clientId, Channel channel, Long requested) {
+        List<Long> result = redisTemplate.execute(CONSUME_UP_TO_SCRIPT, keys(clientId, channel), requested);
+        log.debug("Atomic partial quota consume for clientId={}, channel={}, requested={}, result={}", clientId, channel, requested, result);
+        return new long[]{result.get(0), result.get(1), result.get(2), result.get(3)};
+    }
+
+    /**
+     * @return {novo saldo ou {@link #KEY_MISSING}, epoch} conforme {@link #RELEASE_SCRIPT}
+     */
+    @SuppressWarnings("unchecked")
+    public long[] release(String clientId, Channel channel, Long amount) {
+        List<Long> result = redisTemplate.execute(RELEASE_SCRIPT, keys(clientId, channel), amount);
+        log.debug("Atomic quota release for clientId={}, channel={}, amount={}, result={}", clientId, channel, amount, result);
+        return new long[]{result.get(0), result.get(1)};
+    }
+
+    /**
+     * Aplica a diferença de limite sobre o saldo atual, sem perder consumos concorrentes.
+     *
+     * @return novo saldo, ou {@link #KEY_MISSING} se a chave não estava carregada
+     */
+    public long adjust(String clientId, Channel channel, Long delta) {
+        Long result = redisTemplate.execute(ADJUST_SCRIPT, List.of(buildKey(clientId, channel)), delta);
+        log.debug("Atomic quota adjust for clientId={}, channel={}, delta={}, result={}", clientId, channel, delta, result);
+        return result;
+    }
+
+    /**
+     * Carrega o saldo autoritativo (modo redis) só se ninguém carregou antes (SET NX), para não sobrescrever
+     * consumos concorrentes. Sem TTL, como em {@link #saveAvailableQuota}; o epoch da linha vai junto.
+     */
+    public boolean loadAvailableQuota(String clientId, Channel channel, Long availableQuota, Long epoch) {
+        Long loaded = redisTemplate.execute(LOAD_SCRIPT, keys(clientId, channel), availableQuota, epoch);
+        log.debug("Loaded quota for clientId={}, channel={}, available={}, epoch={}, loaded={}",
+                clientId, channel, availableQuota, epoch, loaded);
+        return Long.valueOf(1).equals(loaded);
+    }
+
     public void invalidate(String clientId, Channel channel) {
-        String key = buildKey(clientId, channel);
-        redisTemplate.delete(key);
+        redisTemplate.delete(keys(clientId, channel));
         log.debug("Invalidated cache for clientId={}, channel={}", clientId, channel);
     }
 
@@ -72,4 +232,12 @@ public class QuotaCacheRepository {
         return QUOTA_KEY_PREFIX + clientId + ":" + channel.name();
     }
 
+    /**
+     * Saldo e epoch; a chave de epoch usa o nome da chave de saldo como hash tag, então cai no mesmo slot do cluster.
+     */
+    private List<String> keys(String clientId, Channel channel) {
+        String key = buildKey(clientId, channel);
+        return List.of(key, "{" + key + "}:epoch");
+    }
+
 }
\ No newline at end of file
@@ -33,4 +33,7 @@ public interface QuotaRepository extends JpaRepository<Quota, Long> {
 
     boolean existsByClientIdAndChannel(String clientId, Channel channel);
 
+    @Query(value = "SELECT nextval('quota_epoch_seq')", nativeQuery = true)
+    Long nextEpoch();
+
 }
\ No newline at end of file
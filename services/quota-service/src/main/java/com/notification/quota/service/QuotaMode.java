@@ -0,0 +1,15 @@
+package com.notification.quota.service;
+
+/**
+ * Fonte da verdade do saldo de quota (quota.mode).
+ */
+public enum QuotaMode {
+    /**
+     * Banco com lock pessimista por requisição; o Redis é apenas cache.
+     */
+    DATABASE,
+    /**
+     * Redis com check-and-decrement atômico (Lua); o banco é reconciliado de forma assíncrona.
+     */
+    REDIS
+}
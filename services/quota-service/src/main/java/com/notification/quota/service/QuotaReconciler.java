@@ -0,0 +1,123 @@
+package com.notification.quota.service;
+
+import com.notification.quota.model.Channel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * No modo redis (quota.mode=redis) o Redis é a fonte da verdade do saldo; esta classe acumula
+ * o consumo líquido por (client, channel) e aplica no banco periodicamente com UPDATEs atômicos,
+ * sem lock de linha no caminho da requisição.
+ * Cada delta é acumulado sob o epoch da quota lido junto com o saldo no Redis. O reset troca o epoch da linha,
+ * então deltas anteriores ao reset, de qualquer instância, não casam mais com a linha e são descartados. Epoch 0
+ * (chave carregada antes da coluna existir) é aplicado sem essa verificação.
+ */
+@Slf4j
+@Component
+public class QuotaReconciler {
+
+    private static final String UPDATE_SQL = """
+            UPDATE quotas
+               SET used_quota = GREATEST(0, LEAST(total_quota, used_quota + ?)),
+                   available_quota = GREATEST(0, LEAST(total_quota, available_quota - ?)),
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE client_id = ? AND channel = ? AND (epoch = ? OR ? = 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer flushTimer;
+
+    // Consumo líquido ainda não aplicado (positivo = consumo, negativo = liberação)
+    private final Map<QuotaKey, LongAdder> pending = new ConcurrentHashMap<>();
+    // Deltas retirados de pending mas ainda não commitados no banco
+    private final Map<QuotaKey, Long> inFlight = new ConcurrentHashMap<>();
+
+    public QuotaReconciler(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTimer = Timer.builder("quota_reconcile_flush")
+                .description("Duração da reconciliação do saldo Redis com a tabela quotas")
+                .register(meterRegistry);
+        Gauge.builder("quota_reconcile_pending_keys", pending, Map::size)
+                .description("Pares (client, channel) com consumo ainda não aplicado no banco")
+                .register(meterRegistry);
+    }
+
+    public void recordConsume(String clientId, Channel channel, long epoch, long amount) {
+        pending.computeIfAbsent(new QuotaKey(clientId, channel, epoch), k -> new LongAdder()).add(amount);
+    }
+
+    public void recordRelease(String clientId, Channel channel, long epoch, long amount) {
+        pending.computeIfAbsent(new QuotaKey(clientId, channel, epoch), k -> new LongAdder()).add(-amount);
+    }
+
+    /**
+     * Consumo líquido que o banco ainda não reflete no epoch informado, para descontar ao recarregar o saldo no Redis.
+     */
+    public long pendingDelta(String clientId, Channel channel, long epoch) {
+        return pendingDelta(new QuotaKey(clientId, channel, epoch)) + pendingDelta(new QuotaKey(clientId, channel, 0));
+    }
+
+    private long pendingDelta(QuotaKey key) {
+        LongAdder adder = pending.get(key);
+        return (adder != null ? adder.sum() : 0) + inFlight.getOrDefault(key, 0L);
+    }
+
+    @Scheduled(fixedDelayString = "${quota.redis.reconcile-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (!pending.isEmpty()) {
+            flush();
+        }
+    }
+
+    /**
+     * Aplica no banco todo o consumo acumulado. Chamado pelo agendamento e no shutdown.
+     */
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+
+        pending.forEach((key, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                inFlight.merge(key, delta, Long::sum);
+            }
+        });
+
+        inFlight.forEach((key, delta) -> batch.add(new Object[]{delta, delta, key.clientId(), key.channel().name(), key.epoch(), key.epoch()}));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            inFlight.clear();
+            log.debug("Quota reconciliation applied: keys={}", batch.size());
+        } catch (Exception e) {
+            // Deltas ficam em inFlight e são reaplicados no próximo flush
+            log.error("Quota reconciliation failed, will retry: keys={}, error={}", batch.size(), e.getMessage(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private record QuotaKey(String clientId, Channel channel, long epoch) {
+    }
+}
@@ -9,8 +9,11 @@ import com.notification.quota.repository.QuotaCacheRepository;
 import com.notification.quota.repository.QuotaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,6 +26,9 @@ public class QuotaService {
     private final QuotaRepository quotaRepository;
     private final QuotaCacheRepository quotaCacheRepository;
 
+    @Value("${quota.mode:database}")
+    private QuotaMode mode;
+
     public static final String QUOTA_NOT_FOUND = "Quota not found for clientId=%s, channel=%s";
 
     @Transactional(readOnly = true)
@@ -70,6 +76,7 @@ public class QuotaService {
                 .usedQuota(0L)
                 .availableQuota(request.getTotalQuota())
                 .active(request.getActive())
+                .epoch(quotaRepository.nextEpoch())
                 .build();
 
         Quota savedQuota = quotaRepository.save(quota);
@@ -77,7 +84,8 @@ public class QuotaService {
         quotaCacheRepository.saveAvailableQuota(
                 savedQuota.getClientId(),
                 savedQuota.getChannel(),
-                savedQuota.getAvailableQuota()
+                savedQuota.getAvailableQuota(),
+                savedQuota.getEpoch()
         );
 
         log.info("Quota created successfully with id={}", savedQuota.getId());
@@ -89,7 +97,8 @@ public class QuotaService {
         log.info("Updating quota limit for clientId={}, channel={}, newTotal={}",
                 clientId, channel, newTotalQuota);
 
-        Quota quota = quotaRepository.findByClientIdAndChannel(clientId, channel)
+        // Lock da linha: o UPDATE relativo do reconciler espera, então o saldo lido não fica obsoleto
+        Quota quota = quotaRepository.findByClientIdAndChannelWithLock(clientId, channel)
                 .orElseThrow(() -> new QuotaNotFoundException(
                         String.format(QUOTA_NOT_FOUND, clientId, channel)
                 ));
@@ -100,11 +109,16 @@ public class QuotaService {
 
         Quota updatedQuota = quotaRepository.save(quota);
 
-        quotaCacheRepository.saveAvailableQuota(
-                updatedQuota.getClientId(),
-                updatedQuota.getChannel(),
-                updatedQuota.getAvailableQuota()
-        );
+        if (mode == QuotaMode.REDIS) {
+            // Saldo autoritativo no Redis: aplica só a diferença (Lua), preservando o consumo concorrente
+            afterCommit(() -> quotaCacheRepository.adjust(clientId, channel, difference));
+        } else {
+            quotaCacheRepository.saveAvailableQuota(
+                    updatedQuota.getClientId(),
+                    updatedQuota.getChannel(),
+                    updatedQuota.getAvailableQuota()
+            );
+        }
 
         log.info("Quota limit updated successfully");
         return QuotaResponse.fromEntity(updatedQuota);
@@ -114,19 +128,23 @@ public class QuotaService {
     public QuotaResponse resetQuota(String clientId, Channel channel) {
         log.info("Resetting quota for clientId={}, channel={}", clientId, channel);
 
-        Quota quota = quotaRepository.findByClientIdAndChannel(clientId, channel)
+        Quota quota = quotaRepository.findByClientIdAndChannelWithLock(clientId, channel)
                 .orElseThrow(() -> new QuotaNotFoundException(
                         String.format(QUOTA_NOT_FOUND, clientId, channel)
                 ));
 
+        // Novo epoch: deltas de consumo ainda não reconciliados, de qualquer instância, deixam de ser aplicados na linha
         quota.resetQuota();
+        quota.setEpoch(quotaRepository.nextEpoch());
         Quota resetQuota = quotaRepository.save(quota);
 
-        quotaCacheRepository.saveAvailableQuota(
+        // O reset zera o consumo por definição; saldo e epoch são gravados juntos, atômicos em relação ao consumo
+        afterCommit(() -> quotaCacheRepository.saveAvailableQuota(
                 resetQuota.getClientId(),
                 resetQuota.getChannel(),
-                resetQuota.getAvailableQuota()
-        );
+                resetQuota.getAvailableQuota(),
+                resetQuota.getEpoch()
+        ));
 
         log.info("Quota reset successfully");
         return QuotaResponse.fromEntity(resetQuota);
@@ -142,7 +160,8 @@ public class QuotaService {
                 ));
 
         quotaRepository.delete(quota);
-        quotaCacheRepository.invalidate(clientId, channel);
+        // Depois do commit: antes dele um load concorrente ainda leria a linha e recriaria a chave (sem TTL no modo redis)
+        afterCommit(() -> quotaCacheRepository.invalidate(clientId, channel));
 
         log.info("Quota deleted successfully");
     }
@@ -158,4 +177,20 @@ public class QuotaService {
                 .toList();
     }
 
-}
\ No newline at end of file
+    /**
+     * Atualiza o Redis só depois do commit, para não aplicar no saldo uma mudança que sofreu rollback.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,261 @@
+package com.notification.quota.service;
+
+import com.notification.quota.model.QuotaUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava o histórico quota_usage fora do caminho da requisição: os registros entram numa fila
+ * limitada e uma thread dedicada grava em INSERTs multi-linha quando o lote enche ou o intervalo vence.
+ * Com a fila cheia o chamador espera até offer-timeout (backpressure) e, se ainda assim não houver
+ * espaço, grava o próprio registro de forma síncrona. Falhas do banco no flush são retentadas com backoff
+ * (max-attempts); só depois disso os registros são descartados, logados um a um.
+ */
+@Slf4j
+@Component
+public class QuotaUsageLedger implements SmartLifecycle {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO quota_usage (client_id, channel, notification_id, amount, operation, created_at) VALUES ";
+    private static final String VALUES_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final long MAX_RETRY_BACKOFF_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate syncWriteTransaction;
+    private final BlockingQueue<QuotaUsage> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+    private final Counter syncWrites;
+    private final Counter failedRows;
+    private final Counter retriedFlushes;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public QuotaUsageLedger(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${quota.ledger.capacity:50000}") int capacity,
+                            @Value("${quota.ledger.batch-size:500}") int batchSize,
+                            @Value("${quota.ledger.flush-interval-ms:200}") long flushIntervalMs,
+                            @Value("${quota.ledger.offer-timeout-ms:50}") long offerTimeoutMs,
+                            @Value("${quota.ledger.max-attempts:5}") int maxAttempts,
+                            @Value("${quota.ledger.retry-backoff-ms:200}") long retryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        // O append acontece no afterCommit da transação do saldo, com a conexão dela ainda vinculada à thread
+        this.syncWriteTransaction = new TransactionTemplate(transactionManager);
+        this.syncWriteTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+
+        this.flushTimer = Timer.builder("quota_ledger_flush")
+                .description("Duração de cada INSERT em lote no quota_usage")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("quota_ledger_rows_total")
+                .description("Registros de quota_usage gravados pelo ledger")
+                .tag("mode", "async")
+                .register(meterRegistry);
+        this.syncWrites = Counter.builder("quota_ledger_rows_total")
+                .description("Registros de quota_usage gravados pelo ledger")
+                .tag("mode", "sync")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("quota_ledger_failed_total")
+                .description("Registros de quota_usage descartados após esgotar as tentativas de gravação")
+                .register(meterRegistry);
+        this.retriedFlushes = Counter.builder("quota_ledger_flush_retries_total")
+                .description("Novas tentativas de gravação de lotes do quota_usage após falha")
+                .register(meterRegistry);
+        Gauge.builder("quota_ledger_queue_depth", queue, BlockingQueue::size)
+                .description("Registros de quota_usage aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    public void append(QuotaUsage usage) {
+        if (usage.getCreatedAt() == null) {
+            usage.setCreatedAt(LocalDateTime.now());
+        }
+
+        try {
+            if (running && queue.offer(usage, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.warn("Quota ledger queue full or stopped, writing usage synchronously: clientId={}, operation={}",
+                usage.getClientId(), usage.getOperation());
+        syncWriteTransaction.executeWithoutResult(status -> write(List.of(usage)));
+        syncWrites.increment();
+    }
+
+    private void runFlusher() {
+        List<QuotaUsage> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                QuotaUsage first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    QuotaUsage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrompe a espera; o laço drena o que restou na fila
+                if (!running) {
+                    queue.drainTo(batch);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<QuotaUsage> batch) {
+        long start = System.nanoTime();
+        try {
+            for (int from = 0; from < batch.size(); from += batchSize) {
+                writeWithRetry(batch.subList(from, Math.min(from + batchSize, batch.size())));
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Tenta gravar o chunk até max-attempts vezes com backoff exponencial (a fila continua recebendo e,
+     * se encher, os chamadores passam a gravar de forma síncrona). Esgotadas as tentativas, os registros
+     * são descartados: cada um é logado em ERROR para reprocessamento manual e contado em quota_ledger_failed_total.
+     */
+    private void writeWithRetry(List<QuotaUsage> rows) {
+        long backoffMs = retryBackoffMs;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(rows);
+                flushedRows.increment(rows.size());
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    failedRows.increment(rows.size());
+                    log.error("Quota ledger flush failed after {} attempts, dropping rows: rows={}, error={}",
+                            attempt, rows.size(), e.getMessage(), e);
+                    rows.forEach(usage -> log.error("Dropped quota usage: clientId={}, channel={}, notificationId={}, amount={}, operation={}, createdAt={}",
+                            usage.getClientId(), usage.getChannel(), usage.getNotificationId(), usage.getAmount(),
+                            usage.getOperation(), usage.getCreatedAt()));
+                    return;
+                }
+
+                log.warn("Quota ledger flush failed, retrying: rows={}, attempt={}, backoffMs={}, error={}",
+                        rows.size(), attempt, backoffMs, e.getMessage());
+                retriedFlushes.increment();
+                sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // stop() interrompe a espera: segue tentando sem esperar até esgotar as tentativas
+            if (running) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void write(List<QuotaUsage> rows) {
+        String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(rows.size(), VALUES_ROW));
+
+        Object[] args = new Object[rows.size() * 6];
+        int i = 0;
+        for (QuotaUsage usage : rows) {
+            args[i++] = usage.getClientId();
+            args[i++] = usage.getChannel().name();
+            args[i++] = usage.getNotificationId();
+            args[i++] = usage.getAmount();
+            args[i++] = usage.getOperation();
+            args[i++] = Timestamp.valueOf(usage.getCreatedAt());
+        }
+
+        jdbcTemplate.update(sql, args);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("quota-ledger-flusher").daemon().start(this::runFlusher);
+        log.info("Quota ledger started: capacity={}, batchSize={}, flushIntervalMs={}",
+                queue.remainingCapacity(), batchSize, flushIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Quota ledger stopped: pending={}", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Para antes do pool de conexões e depois do servidor web deixar de aceitar requisições.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+}
@@ -1,5 +1,7 @@
 package com.notification.quota.service;
 
+import com.notification.quota.dto.QuotaLeaseRequest;
+import com.notification.quota.dto.QuotaLeaseResponse;
 import com.notification.quota.dto.QuotaValidationRequest;
 import com.notification.quota.dto.QuotaValidationResponse;
 import com.notification.quota.exception.QuotaNotFoundException;
@@ -8,11 +10,14 @@ import com.notification.quota.model.Quota;
 import com.notification.quota.model.QuotaUsage;
 import com.notification.quota.repository.QuotaCacheRepository;
 import com.notification.quota.repository.QuotaRepository;
-import com.notification.quota.repository.QuotaUsageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
@@ -23,13 +28,126 @@ public class QuotaValidationService {
 
     private final QuotaRepository quotaRepository;
     private final QuotaCacheRepository quotaCacheRepository;
-    private final QuotaUsageRepository quotaUsageRepository;
+    private final QuotaUsageLedger quotaUsageLedger;
+    private final QuotaReconciler quotaReconciler;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${quota.mode:database}")
+    private QuotaMode mode;
 
-    @Transactional
     public QuotaValidationResponse validateAndConsume(QuotaValidationRequest request) {
         log.info("Validating and consuming quota for clientId={}, channel={}, amount={}",
                 request.getClientId(), request.getChannel(), request.getAmount());
 
+        if (mode == QuotaMode.REDIS) {
+            return validateAndConsumeAtomically(request);
+        }
+
+        return transactionTemplate.execute(status -> validateAndConsumeWithLock(request));
+    }
+
+    /**
+     * Check-and-decrement em um único script Lua: requisições concorrentes não conseguem passar
+     * juntas pela verificação de saldo, e nenhuma linha do banco é travada no caminho da requisição.
+     */
+    private QuotaValidationResponse validateAndConsumeAtomically(QuotaValidationRequest request) {
+        String clientId = request.getClientId();
+        Channel channel = request.getChannel();
+        Long amount = request.getAmount();
+
+        long[] result = quotaCacheRepository.tryConsume(clientId, channel, amount);
+
+        // Chave ausente: carrega do banco (SET NX) e tenta de novo; a segunda tentativa cobre a corrida com a expiração
+        for (int attempt = 0; attempt < 2 && result[0] == QuotaCacheRepository.KEY_MISSING; attempt++) {
+            Optional<QuotaValidationResponse> denied = loadQuotaIntoCache(clientId, channel, amount);
+            if (denied.isPresent()) {
+                return denied.get();
+            }
+            result = quotaCacheRepository.tryConsume(clientId, channel, amount);
+        }
+
+        if (result[0] != 1) {
+            log.warn("Insufficient quota in cache for clientId={}, channel={}", clientId, channel);
+            return QuotaValidationResponse.denied("Insufficient quota", Math.max(result[1], 0), amount);
+        }
+
+        quotaReconciler.recordConsume(clientId, channel, result[2], amount);
+        recordUsage(clientId, channel, amount, request.getNotificationId(), "CONSUME");
+
+        log.info("Quota consumed successfully from redis");
+        return QuotaValidationResponse.allowed(result[1], amount);
+    }
+
+    /**
+     * Recarrega o saldo no Redis a partir do banco, descontando o consumo ainda não reconciliado.
+     *
+     * @return resposta de negação se a quota estiver inativa
+     */
+    private Optional<QuotaValidationResponse> loadQuotaIntoCache(String clientId, Channel channel, Long amount) {
+        Quota quota = quotaRepository.findByClientIdAndChannel(clientId, channel)
+                .orElseThrow(() -> new QuotaNotFoundException(
+                        String.format(QuotaService.QUOTA_NOT_FOUND, clientId, channel)
+                ));
+
+        if (!Boolean.TRUE.equals(quota.getActive())) {
+            log.warn("Quota is inactive for clientId={}, channel={}", clientId, channel);
+            return Optional.of(QuotaValidationResponse.denied("Quota is inactive", quota.getAvailableQuota(), amount));
+        }
+
+        long available = Math.max(0, quota.getAvailableQuota() - quotaReconciler.pendingDelta(clientId, channel, quota.getEpoch()));
+        quotaCacheRepository.loadAvailableQuota(clientId, channel, available, quota.getEpoch());
+        return Optional.empty();
+    }
+
+    /**
+     * Concede um bloco de até {@code requested} unidades (lease) que o chamador distribui localmente.
+     * Concessão parcial quando o saldo não cobre o pedido; unidades não usadas voltam por /quotas/release.
+     */
+    public QuotaLeaseResponse grantLease(QuotaLeaseRequest request) {
+        String clientId = request.getClientId();
+        Channel channel = request.getChannel();
+        Long requested = request.getRequested();
+        String reference = "lease:" + request.getLeaseId();
+
+        log.info("Granting quota lease for clientId={}, channel={}, requested={}, leaseId={}",
+                clientId, channel, requested, request.getLeaseId());
+
+        if (mode == QuotaMode.REDIS) {
+            long[] result = quotaCacheRepository.tryConsumeUpTo(clientId, channel, requested);
+
+            for (int attempt = 0; attempt < 2 && result[0] == QuotaCacheRepository.KEY_MISSING; attempt++) {
+                if (loadQuotaIntoCache(clientId, channel, requested).isPresent()) {
+                    return QuotaLeaseResponse.of(request.getLeaseId(), requested, 0L, 0L);
+                }
+                result = quotaCacheRepository.tryConsumeUpTo(clientId, channel, requested);
+            }
+
+            if (result[1] > 0) {
+                quotaReconciler.recordConsume(clientId, channel, result[3], result[1]);
+                recordUsage(clientId, channel, result[1], reference, "CONSUME");
+            }
+            return QuotaLeaseResponse.of(request.getLeaseId(), requested, result[1], Math.max(result[2], 0));
+        }
+
+        return transactionTemplate.execute(status -> {
+            Quota quota = quotaRepository.findByClientIdAndChannelWithLock(clientId, channel)
+                    .orElseThrow(() -> new QuotaNotFoundException(
+                            String.format(QuotaService.QUOTA_NOT_FOUND, clientId, channel)
+                    ));
+
+            long granted = Boolean.TRUE.equals(quota.getActive()) ? Math.min(quota.getAvailableQuota(), requested) : 0;
+            if (granted > 0) {
+                quota.consumeQuota(granted);
+                quotaRepository.save(quota);
+                recordUsage(clientId, channel, granted, reference, "CONSUME");
+                quotaCacheRepository.saveAvailableQuota(clientId, channel, quota.getAvailableQuota());
+            }
+
+            return QuotaLeaseResponse.of(request.getLeaseId(), requested, granted, quota.getAvailableQuota());
+        });
+    }
+
+    private QuotaValidationResponse validateAndConsumeWithLock(QuotaValidationRequest request) {
         String clientId = request.getClientId();
         Channel channel = request.getChannel();
         Long amount = request.getAmount();
@@ -107,10 +225,24 @@ public class QuotaValidationService {
         return QuotaValidationResponse.allowed(quota.getAvailableQuota(), amount);
     }
 
-    @Transactional
     public void releaseQuota(String clientId, Channel channel, Long amount, String notificationId) {
         log.info("Releasing quota for clientId={}, channel={}, amount={}", clientId, channel, amount);
 
+        if (mode == QuotaMode.REDIS) {
+            long[] result = quotaCacheRepository.release(clientId, channel, amount);
+            // Sem saldo carregado a devolução vai só para o banco, no epoch atual da linha
+            long epoch = result[0] == QuotaCacheRepository.KEY_MISSING ? currentEpoch(clientId, channel) : result[1];
+            quotaReconciler.recordRelease(clientId, channel, epoch, amount);
+            recordUsage(clientId, channel, amount, notificationId, "RELEASE");
+
+            log.info("Quota released successfully in redis");
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> releaseQuotaWithLock(clientId, channel, amount, notificationId));
+    }
+
+    private void releaseQuotaWithLock(String clientId, Channel channel, Long amount, String notificationId) {
         Quota quota = quotaRepository.findByClientIdAndChannelWithLock(clientId, channel)
                 .orElseThrow(() -> new QuotaNotFoundException(
                         String.format(QuotaService.QUOTA_NOT_FOUND, clientId, channel)
@@ -150,8 +282,10 @@ public class QuotaValidationService {
                         String.format(QuotaService.QUOTA_NOT_FOUND, clientId, channel)
                 ));
 
-        // Atualizar cache
-        quotaCacheRepository.saveAvailableQuota(clientId, channel, quota.getAvailableQuota());
+        // Atualizar cache; no modo redis só o consumo carrega a chave (com o epoch e o consumo pendente)
+        if (mode != QuotaMode.REDIS) {
+            quotaCacheRepository.saveAvailableQuota(clientId, channel, quota.getAvailableQuota());
+        }
 
         boolean allowed = quota.getActive() && quota.getAvailableQuota() >= amount;
 
@@ -160,6 +294,14 @@ public class QuotaValidationService {
                 : QuotaValidationResponse.denied(getDeniedReason(quota), quota.getAvailableQuota(), amount);
     }
 
+    private long currentEpoch(String clientId, Channel channel) {
+        return quotaRepository.findByClientIdAndChannel(clientId, channel)
+                .orElseThrow(() -> new QuotaNotFoundException(
+                        String.format(QuotaService.QUOTA_NOT_FOUND, clientId, channel)
+                ))
+                .getEpoch();
+    }
+
     private static String getDeniedReason(Quota quota) {
         return Boolean.TRUE.equals(quota.getActive()) ? "Insufficient quota" : "Quota is inactive";
     }
@@ -186,8 +328,18 @@ public class QuotaValidationService {
                 .operation(operation)
                 .build();
 
-        quotaUsageRepository.save(usage);
-        log.debug("Quota usage recorded: operation={}, amount={}", operation, amount);
+        // Dentro de transação (modo database) só entra no ledger depois do commit do saldo
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    quotaUsageLedger.append(usage);
+                }
+            });
+        } else {
+            quotaUsageLedger.append(usage);
+        }
+        log.debug("Quota usage queued: operation={}, amount={}", operation, amount);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+-- Epoch da linha de quota: muda a cada reset (e é único entre linhas), para o reconciler descartar deltas antigos
+CREATE SEQUENCE IF NOT EXISTS quota_epoch_seq;
+
+ALTER TABLE quotas ADD COLUMN IF NOT EXISTS epoch BIGINT NOT NULL DEFAULT nextval('quota_epoch_seq');
+
+COMMENT ON COLUMN quotas.epoch IS 'Taken from quota_epoch_seq on create and on every reset; redis-mode usage deltas recorded under an older epoch are not applied';
@@ -1,5 +1,7 @@
 package com.notification.template.controller;
 
+import com.notification.template.dto.BatchRenderTemplateRequest;
+import com.notification.template.dto.BatchRenderTemplateResponse;
 import com.notification.template.dto.RenderTemplateRequest;
 import com.notification.template.dto.RenderTemplateResponse;
 import com.notification.template.service.TemplateService;
@@ -26,5 +28,13 @@ public class InternalTemplateController {
         RenderTemplateResponse response = templateService.renderTemplate(request);
         return ResponseEntity.ok(response);
     }
-}
 
+    @PostMapping("/render/batch")
+    public ResponseEntity<BatchRenderTemplateResponse> renderTemplates(@Valid @RequestBody BatchRenderTemplateRequest request) {
+
+        log.info("POST /internal/v1/templates/render/batch - size: {}", request.getRequests().size());
+
+        BatchRenderTemplateResponse response = templateService.renderTemplates(request);
+        return ResponseEntity.ok(response);
+    }
+}
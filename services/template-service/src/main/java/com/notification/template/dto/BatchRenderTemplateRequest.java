@@ -0,0 +1,20 @@
+package com.notification.template.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRenderTemplateRequest {
+
+    @NotEmpty(message = "Requests are required")
+    @Size(max = 1000, message = "A batch must have at most 1000 requests")
+    private List<@Valid RenderTemplateRequest> requests;
+}
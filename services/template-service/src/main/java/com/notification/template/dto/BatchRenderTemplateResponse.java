@@ -0,0 +1,33 @@
+package com.notification.template.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRenderTemplateResponse {
+
+    /**
+     * Um resultado por request, na mesma ordem do lote recebido.
+     */
+    private List<RenderResult> results;
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RenderResult {
+        private String content;
+        private String subject;
+        private UUID templateId;
+        private Integer templateVersion;
+        private String error;
+        private String message;
+    }
+}
@@ -5,6 +5,7 @@ import com.notification.template.dto.RenderTemplateResponse;
 import com.notification.template.model.Channel;
 import com.notification.template.model.Template;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
@@ -13,12 +14,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Service
 public class MetricsService {
 
     private final MeterRegistry meterRegistry;
+    private final Map<String, TierStats> tierStats = new ConcurrentHashMap<>();
 
     public MetricsService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -60,6 +63,26 @@ public class MetricsService {
                 .increment();
     }
 
+    /**
+     * Acesso por nível do cache de templates (l1 = memória, l2 = Redis), com a taxa de acerto como gauge.
+     */
+    public void templateCacheTier(String tier, boolean hit) {
+        tierStats.computeIfAbsent(tier, t -> {
+            TierStats stats = new TierStats();
+            Gauge.builder("template_cache_hit_ratio", stats, TierStats::hitRatio)
+                    .description("Taxa de acerto do cache de templates por nível")
+                    .tag("tier", t)
+                    .register(meterRegistry);
+            return stats;
+        }).record(hit);
+
+        Counter.builder("template_cache_tier_total")
+                .tag("tier", tier)
+                .tag("result", hit ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+    }
+
     public Timer.Sample getRenderTimer() {
         return Timer.start(meterRegistry);
     }
@@ -69,6 +92,22 @@ public class MetricsService {
             return "unknown";
         return valor.toLowerCase();
     }
-}
 
+    private static final class TierStats {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder total = new LongAdder();
+
+        void record(boolean hit) {
+            total.increment();
+            if (hit) {
+                hits.increment();
+            }
+        }
 
+        double hitRatio() {
+            long requests = total.sum();
+            return requests == 0 ? 0 : (double) hits.sum() / requests;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.notification.template.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.mustachejava.Mustache;
+import com.notification.template.model.Template;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Cache limitado de templates Mustache já compilados.
+ * A chave é id:versão:parte; como uma versão de template nunca muda de conteúdo (update cria uma nova
+ * versão), não há invalidação: versões antigas saem por tamanho (LRU/W-TinyLFU do Caffeine).
+ * Métricas: cache_gets_total{cache="template_compiled",result="hit|miss"}, cache_evictions_total, cache_size.
+ */
+@Slf4j
+@Component
+public class CompiledTemplateCache {
+
+    public static final String CACHE_NAME = "template_compiled";
+
+    private final Cache<String, Mustache> cache;
+
+    public CompiledTemplateCache(MeterRegistry meterRegistry,
+                                 @Value("${cache.compiled.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Compiled template cache initialized: maxSize={}", maxSize);
+    }
+
+    public Mustache get(String key, Function<String, Mustache> compiler) {
+        return cache.get(key, compiler);
+    }
+
+    public static String key(Template template, String part) {
+        return template.getId() + ":" + template.getVersion() + ":" + part;
+    }
+}
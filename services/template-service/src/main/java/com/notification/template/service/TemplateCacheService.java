@@ -1,28 +1,64 @@
 package com.notification.template.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.notification.template.metrics.MetricsService;
 import com.notification.template.model.Channel;
 import com.notification.template.model.Template;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Optional;
 
+/**
+ * Cache de templates em dois níveis: L1 em memória (Caffeine, TTL curto) na frente do L2 no Redis.
+ * Evictions são propagadas para o L1 de todas as instâncias via pub/sub no canal
+ * {@value #INVALIDATION_CHANNEL}; os templates do L1 são compartilhados entre threads e não devem ser alterados.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class TemplateCacheService {
+public class TemplateCacheService implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "template:invalidation";
+    public static final String LOCAL_CACHE_NAME = "template_l1";
 
     private final RedisTemplate<String, Template> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MetricsService metricsService;
+    private final Cache<String, Template> localCache;
 
     @Value("${cache.template.ttl:3600}")
     private long ttl;
 
+    public TemplateCacheService(RedisTemplate<String, Template> redisTemplate,
+                                StringRedisTemplate stringRedisTemplate,
+                                MetricsService metricsService,
+                                MeterRegistry meterRegistry,
+                                @Value("${cache.template.local.ttl:30}") long localTtl,
+                                @Value("${cache.template.local.max-size:5000}") long localMaxSize) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.metricsService = metricsService;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, LOCAL_CACHE_NAME);
+    }
+
     private String buildCacheKey(String clientId, Channel channel, String templateCode) {
         return String.format("template:%s:%s:%s", clientId, channel, templateCode);
     }
@@ -30,11 +66,20 @@ public class TemplateCacheService {
     public Optional<Template> get(String clientId, Channel channel, String templateCode) {
         String key = buildCacheKey(clientId, channel, templateCode);
 
+        Template local = localCache.getIfPresent(key);
+        metricsService.templateCacheTier("l1", local != null);
+        if (local != null) {
+            log.debug("L1 cache HIT for key: {}", key);
+            return Optional.of(local);
+        }
+
         try {
             Template template = redisTemplate.opsForValue().get(key);
+            metricsService.templateCacheTier("l2", template != null);
 
             if (template != null) {
                 log.debug("Cache HIT for key: {}", key);
+                localCache.put(key, template);
                 return Optional.of(template);
             }
 
@@ -49,6 +94,7 @@ public class TemplateCacheService {
 
     public void put(String clientId, Channel channel, String templateCode, Template template) {
         String key = buildCacheKey(clientId, channel, templateCode);
+        localCache.put(key, template);
 
         try {
             redisTemplate.opsForValue().set(key, template, Duration.ofSeconds(ttl));
@@ -59,16 +105,44 @@ public class TemplateCacheService {
         }
     }
 
+    /**
+     * Remove dos dois níveis e avisa as demais instâncias. Dentro de uma transação repete a eviction
+     * após o commit, para que nenhuma instância recarregue a versão antiga do banco nesse intervalo.
+     */
     public void evict(String clientId, Channel channel, String templateCode) {
         String key = buildCacheKey(clientId, channel, templateCode);
+        evictAndBroadcast(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(key);
+                }
+            });
+        }
+    }
+
+    private void evictAndBroadcast(String key) {
+        localCache.invalidate(key);
 
         try {
             Boolean deleted = redisTemplate.delete(key);
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, key);
             log.debug("Cache evicted for key: {}, deleted: {}", key, deleted);
 
         } catch (Exception e) {
             log.warn("Error evicting cache, key: {}, error: {}", key, e.getMessage());
         }
     }
-}
 
+    /**
+     * Invalidação recebida via pub/sub (inclusive as publicadas por esta instância).
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        localCache.invalidate(key);
+        log.debug("L1 cache invalidated by broadcast for key: {}", key);
+    }
+}
@@ -4,24 +4,68 @@ import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
 import com.notification.template.exception.TemplateRenderException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class TemplateRenderService {
 
     private final MustacheFactory mustacheFactory = new DefaultMustacheFactory();
 
+    private final CompiledTemplateCache compiledTemplateCache;
+
+    /**
+     * Renderiza um template salvo, reaproveitando a versão compilada em cache.
+     *
+     * @param cacheKey identifica conteúdo imutável (ver {@link CompiledTemplateCache#key})
+     */
+    public String render(String cacheKey, String templateContent, Map<String, String> variables) {
+        Mustache mustache;
+        try {
+            mustache = compiledTemplateCache.get(cacheKey, key -> compile(templateContent, key));
+        } catch (Exception e) {
+            log.error("Error compiling template {}: {}", cacheKey, e.getMessage(), e);
+            throw new TemplateRenderException("Failed to render template", e);
+        }
+
+        return execute(mustache, variables);
+    }
+
+    /**
+     * Renderiza conteúdo avulso, sem cache.
+     */
     public String render(String templateContent, Map<String, String> variables) {
+        Mustache mustache;
         try {
-            log.debug("Rendering template with variables: {}", variables.keySet());
+            mustache = compile(templateContent, "inline-" + UUID.randomUUID());
+        } catch (Exception e) {
+            log.error("Error compiling template: {}", e.getMessage(), e);
+            throw new TemplateRenderException("Failed to render template", e);
+        }
 
-            Mustache mustache = mustacheFactory.compile(new StringReader(templateContent), "template");
+        return execute(mustache, variables);
+    }
+
+    /**
+     * Cada compilação recebe um nome único: o nome é a identidade do template dentro do
+     * {@link DefaultMustacheFactory}, e reutilizar o mesmo nome para conteúdos diferentes pode
+     * devolver o template errado.
+     */
+    private Mustache compile(String templateContent, String name) {
+        return mustacheFactory.compile(new StringReader(templateContent), name);
+    }
+
+    private String execute(Mustache mustache, Map<String, String> variables) {
+        try {
+            log.debug("Rendering template with variables: {}", variables.keySet());
 
             StringWriter writer = new StringWriter();
             mustache.execute(writer, variables);
@@ -37,4 +81,3 @@ public class TemplateRenderService {
         }
     }
 }
-
@@ -3,6 +3,7 @@ package com.notification.template.service;
 import com.notification.template.dto.*;
 import com.notification.template.exception.MissingVariablesException;
 import com.notification.template.exception.TemplateNotFoundException;
+import com.notification.template.exception.TemplateRenderException;
 import com.notification.template.metrics.MetricsService;
 import com.notification.template.model.Channel;
 import com.notification.template.model.Template;
@@ -15,8 +16,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -105,7 +109,8 @@ public class TemplateService {
         log.info("Updating template for client: {}, code: {}, channel: {}",
                 clientId, templateCode, channel);
 
-        Template currentTemplate = findActiveTemplate(clientId, channel, templateCode);
+        // Lê do banco: o template do cache é compartilhado e não pode ser alterado
+        Template currentTemplate = findActiveTemplateInDatabase(clientId, channel, templateCode);
 
         currentTemplate.setActive(false);
         templateRepository.save(currentTemplate);
@@ -137,7 +142,7 @@ public class TemplateService {
         log.info("Deleting template for client: {}, code: {}, channel: {}",
                 clientId, templateCode, channel);
 
-        Template template = findActiveTemplate(clientId, channel, templateCode);
+        Template template = findActiveTemplateInDatabase(clientId, channel, templateCode);
         template.setActive(false);
         templateRepository.save(template);
 
@@ -162,20 +167,12 @@ public class TemplateService {
 
             validateVariables(template.getVariables(), request.getVariables().keySet());
 
-            String renderedContent = renderService.render(template.getContent(), request.getVariables());
-            String renderedSubject = template.getSubject() != null
-                    ? renderService.render(template.getSubject(), request.getVariables())
-                    : null;
+            RenderTemplateResponse response = render(template, request.getVariables());
 
             metricsService.renderMetrics(request, timerSample, true);
             log.info("Template rendered successfully");
 
-            return RenderTemplateResponse.builder()
-                    .content(renderedContent)
-                    .subject(renderedSubject)
-                    .templateId(template.getId())
-                    .templateVersion(template.getVersion())
-                    .build();
+            return response;
 
         } catch (Exception e) {
             metricsService.renderMetrics(request, timerSample, false);
@@ -183,6 +180,58 @@ public class TemplateService {
         }
     }
 
+    /**
+     * Renderiza um lote de requests resolvendo cada template (client, channel, code) uma única vez.
+     * Falhas são reportadas por item, sem abortar o lote.
+     */
+    @Transactional(readOnly = true)
+    public BatchRenderTemplateResponse renderTemplates(BatchRenderTemplateRequest batch) {
+        log.info("Rendering template batch: size={}", batch.getRequests().size());
+
+        Map<String, Optional<Template>> templates = new HashMap<>();
+        List<BatchRenderTemplateResponse.RenderResult> results = new ArrayList<>(batch.getRequests().size());
+
+        for (RenderTemplateRequest request : batch.getRequests()) {
+            Timer.Sample timerSample = metricsService.getRenderTimer();
+
+            String key = request.getClientId() + ":" + request.getChannel() + ":" + request.getTemplateCode();
+            Optional<Template> template = templates.computeIfAbsent(key, k -> findActiveTemplateIfPresent(request));
+
+            if (template.isEmpty()) {
+                metricsService.renderMetrics(request, timerSample, false);
+                results.add(renderError("TEMPLATE_NOT_FOUND", String.format(
+                        "Template '%s' not found for client '%s' and channel '%s'",
+                        request.getTemplateCode(), request.getClientId(), request.getChannel())));
+                continue;
+            }
+
+            try {
+                validateVariables(template.get().getVariables(), request.getVariables().keySet());
+                RenderTemplateResponse rendered = render(template.get(), request.getVariables());
+
+                metricsService.renderMetrics(request, timerSample, true);
+                results.add(BatchRenderTemplateResponse.RenderResult.builder()
+                        .content(rendered.getContent())
+                        .subject(rendered.getSubject())
+                        .templateId(rendered.getTemplateId())
+                        .templateVersion(rendered.getTemplateVersion())
+                        .build());
+
+            } catch (MissingVariablesException e) {
+                metricsService.renderMetrics(request, timerSample, false);
+                results.add(renderError("MISSING_VARIABLES", e.getMessage()));
+            } catch (TemplateRenderException e) {
+                metricsService.renderMetrics(request, timerSample, false);
+                results.add(renderError("TEMPLATE_RENDER_ERROR", e.getMessage()));
+            }
+        }
+
+        log.info("Template batch rendered: size={}, templates={}", results.size(), templates.size());
+        return BatchRenderTemplateResponse.builder()
+                .results(results)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public List<TemplateResponse> getTemplateHistory(String clientId, String templateCode, Channel channel) {
         List<Template> templates = templateRepository
@@ -200,9 +249,14 @@ public class TemplateService {
 
         validateVariables(template.getVariables(), request.getVariables().keySet());
 
-        String renderedContent = renderService.render(template.getContent(), request.getVariables());
+        return render(template, request.getVariables());
+    }
+
+    private RenderTemplateResponse render(Template template, Map<String, String> variables) {
+        String renderedContent = renderService.render(
+                CompiledTemplateCache.key(template, "content"), template.getContent(), variables);
         String renderedSubject = template.getSubject() != null
-                ? renderService.render(template.getSubject(), request.getVariables())
+                ? renderService.render(CompiledTemplateCache.key(template, "subject"), template.getSubject(), variables)
                 : null;
 
         return RenderTemplateResponse.builder()
@@ -213,6 +267,13 @@ public class TemplateService {
                 .build();
     }
 
+    private BatchRenderTemplateResponse.RenderResult renderError(String error, String message) {
+        return BatchRenderTemplateResponse.RenderResult.builder()
+                .error(error)
+                .message(message)
+                .build();
+    }
+
     private Template findActiveTemplate(String clientId, Channel channel, String templateCode) {
         Optional<Template> cached = cacheService.get(clientId, channel, templateCode);
         if (cached.isPresent()) {
@@ -222,16 +283,28 @@ public class TemplateService {
 
         metricsService.templateMiss();
 
-        Template template = templateRepository
+        Template template = findActiveTemplateInDatabase(clientId, channel, templateCode);
+
+        cacheService.put(clientId, channel, templateCode, template);
+
+        return template;
+    }
+
+    private Template findActiveTemplateInDatabase(String clientId, Channel channel, String templateCode) {
+        return templateRepository
                 .findByClientIdAndChannelAndTemplateCodeAndActiveTrue(clientId, channel, templateCode)
                 .orElseThrow(() -> new TemplateNotFoundException(
                         String.format("Template '%s' not found for client '%s' and channel '%s'",
                                 templateCode, clientId, channel)
                 ));
+    }
 
-        cacheService.put(clientId, channel, templateCode, template);
-
-        return template;
+    private Optional<Template> findActiveTemplateIfPresent(RenderTemplateRequest request) {
+        try {
+            return Optional.of(findActiveTemplate(request.getClientId(), request.getChannel(), request.getTemplateCode()));
+        } catch (TemplateNotFoundException e) {
+            return Optional.empty();
+        }
     }
 
     private void validateVariables(Set<String> required, Set<String> provided) {
@@ -0,0 +1,69 @@
+package com.notification.template.benchmark;
+
+import com.notification.template.service.CompiledTemplateCache;
+import com.notification.template.service.TemplateRenderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compila a cada chamada x template compilado em cache.
+ * Executar pelo main (IDE) ou com org.openjdk.jmh.Main usando o classpath de teste do módulo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    private static final String CONTENT = """
+            Olá {{name}},
+
+            Seu pedido #{{orderId}} foi confirmado em {{date}}.
+            Total: R$ {{amount}}
+            Entrega prevista para {{deliveryDate}} no endereço {{address}}.
+
+            Obrigado por comprar com a {{company}}!
+            """;
+    private static final String SUBJECT = "Pedido #{{orderId}} confirmado";
+
+    private static final Map<String, String> VARIABLES = Map.of(
+            "name", "João Silva",
+            "orderId", "12345",
+            "date", "18/10/2026",
+            "amount", "150.00",
+            "deliveryDate", "25/10/2026",
+            "address", "Rua das Flores, 100",
+            "company", "Loja Exemplo");
+
+    private TemplateRenderService renderService;
+
+    @Setup
+    public void setup() {
+        renderService = new TemplateRenderService(new CompiledTemplateCache(new SimpleMeterRegistry(), 10_000));
+    }
+
+    @Benchmark
+    public String compilePerCall() {
+        return renderService.render(SUBJECT, VARIABLES) + renderService.render(CONTENT, VARIABLES);
+    }
+
+    @Benchmark
+    public String cachedCompiled() {
+        return renderService.render("bench:1:subject", SUBJECT, VARIABLES)
+                + renderService.render("bench:1:content", CONTENT, VARIABLES);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TemplateRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.notification.template.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledTemplateCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TemplateRenderService renderService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        renderService = new TemplateRenderService(new CompiledTemplateCache(meterRegistry, 100));
+    }
+
+    @Test
+    void shouldCompileEachVersionOnce() {
+        // Given
+        Map<String, String> variables = Map.of("name", "João");
+
+        // When
+        renderService.render("t1:1:content", "Olá {{name}}", variables);
+        String result = renderService.render("t1:1:content", "Olá {{name}}", variables);
+
+        // Then
+        assertEquals("Olá João", result);
+        assertEquals(1.0, cacheGets("hit"));
+        assertEquals(1.0, cacheGets("miss"));
+    }
+
+    @Test
+    void shouldNotMixTemplatesWithDifferentKeys() {
+        // Given
+        Map<String, String> variables = Map.of("name", "João");
+
+        // When
+        String content = renderService.render("t1:2:content", "Olá {{name}}", variables);
+        String subject = renderService.render("t1:2:subject", "Bem-vindo, {{name}}!", variables);
+        String inline = renderService.render("Tchau {{name}}", variables);
+
+        // Then
+        assertEquals("Olá João", content);
+        assertEquals("Bem-vindo, João!", subject);
+        assertEquals("Tchau João", inline);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CompiledTemplateCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}